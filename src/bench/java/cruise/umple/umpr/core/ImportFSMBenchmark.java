@@ -0,0 +1,225 @@
+package cruise.umple.umpr.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import cruise.umple.compiler.UmpleImportHandler;
+import cruise.umple.compiler.UmpleImportHandlerFactory;
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.entities.ImportEntity;
+import cruise.umple.umpr.core.entities.ImportEntityFactory;
+import cruise.umple.umpr.core.fixtures.MockModule;
+import cruise.umple.umpr.core.repositories.TestRepository;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Measures each state of an {@link ImportFSM} on its own, over the Ecore files of the {@link TestRepository}
+ * fixtures. Only the files that import and model successfully are used, otherwise the later states measure nothing.
+ *
+ * <p>
+ * Each stage benchmark starts from an {@link ImportFSM} that was advanced to the state before it, the setup is not
+ * measured. Run with {@code ant bench}, which adds {@code -prof gc} to report the allocation rate of each stage
+ * alongside its throughput.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ImportFSMBenchmark {
+
+  @Param({"bibtex.ecore", "ocl-operations.ecore"})
+  public String file;
+
+  private Repository repository;
+  private ImportEntity entity;
+  private byte[] content;
+
+  private Path outputDir;
+  private Path outputPath;
+
+  /**
+   * Umple generated from {@link #content}, written by the {@link #writeUmple()} benchmarks.
+   */
+  private String umple;
+
+  /**
+   * The {@link ImportFSM} run by the current invocation, created by {@link #prepare()}.
+   */
+  private ImportFSM fsm;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    final Injector injector = Guice.createInjector(new MockModule());
+
+    repository = injector.getInstance(TestRepository.class);
+    content = Resources.toByteArray(Resources.getResource("repositories/" + file));
+
+    // the content is held in memory so fetching does not measure reading the class path
+    entity = injector.getInstance(ImportEntityFactory.class).createStringEntity(repository, Paths.get(file),
+        UmpleImportType.ECORE, new String(content, Charsets.UTF_8), Optional.empty());
+
+    outputDir = Files.createTempDirectory("BENCH_UMP_");
+    outputPath = outputDir.resolve(repository.getName()).resolve(file);
+
+    umple = importHandler();
+  }
+
+  @TearDown(Level.Trial)
+  public void cleanup() throws IOException {
+    FileUtils.deleteDirectory(outputDir.toFile());
+  }
+
+  private ImportFSM newFSM() {
+    return new ImportFSM(outputPath, UmpleImportType.ECORE, entity, repository, Optional.empty());
+  }
+
+  /**
+   * Advances an {@link ImportFSM} to {@code state}, failing the benchmark if it does not get there.
+   */
+  private static ImportFSM advanceTo(final ImportFSM fsm, final ImportFSM.State state) {
+    fsm.stage();
+    while (fsm.getState() != state) {
+      if (!fsm.advance()) {
+        throw new IllegalStateException("Could not reach " + state + ", stuck in " + fsm.getState() + ": "
+            + fsm.getFailure());
+      }
+    }
+
+    return fsm;
+  }
+
+  @TearDown(Level.Invocation)
+  public void release() {
+    if (fsm != null) {
+      fsm.release();
+      fsm = null;
+    }
+  }
+
+  /**
+   * Prepared {@link ImportFSM} instances for {@link ImportFSMBenchmark#importStage(ImportState)}.
+   */
+  @State(Scope.Thread)
+  public static class ImportState {
+
+    ImportFSM fsm;
+
+    @Setup(Level.Invocation)
+    public void prepare(final ImportFSMBenchmark bench) {
+      fsm = advanceTo(bench.newFSM(), ImportFSM.State.Fetch);
+      bench.fsm = fsm;
+    }
+  }
+
+  /**
+   * Prepared {@link ImportFSM} instances for {@link ImportFSMBenchmark#modelStage(ModelState)}.
+   */
+  @State(Scope.Thread)
+  public static class ModelState {
+
+    ImportFSM fsm;
+
+    @Setup(Level.Invocation)
+    public void prepare(final ImportFSMBenchmark bench) {
+      fsm = advanceTo(bench.newFSM(), ImportFSM.State.Import);
+      bench.fsm = fsm;
+    }
+  }
+
+  /**
+   * {@link ImportFSM.State#Fetch}: streams and hashes the entity's content into the spool.
+   */
+  @Benchmark
+  public ImportFSM fetchStage() {
+    fsm = newFSM();
+    fsm.stage();
+    return fsm;
+  }
+
+  /**
+   * {@link ImportFSM.State#Import}: converts the fetched content to Umple.
+   */
+  @Benchmark
+  public ImportFSM importStage(final ImportState state) {
+    state.fsm.advance();
+    return state.fsm;
+  }
+
+  /**
+   * {@link ImportFSM.State#Model}: writes the Umple file and builds an {@code UmpleModel} from it.
+   */
+  @Benchmark
+  public ImportFSM modelStage(final ModelState state) {
+    state.fsm.advance();
+    return state.fsm;
+  }
+
+  /**
+   * The {@link UmpleImportHandler} without an {@link ImportFSM}, the baseline of {@link #importStage(ImportState)}.
+   */
+  @Benchmark
+  public String importHandler() throws Exception {
+    final UmpleImportHandler handler = UmpleImportHandlerFactory.create(UmpleImportType.ECORE);
+
+    try (InputStream in = new ByteArrayInputStream(content)) {
+      return handler.readDataFromXML(in).generateUmple();
+    }
+  }
+
+  /**
+   * Writes the Umple file the way {@link ImportFSM.State#Model} does: encoded once and sized by its encoding.
+   */
+  @Benchmark
+  public long writeUmple() throws IOException {
+    final Path file = Paths.get(outputPath.toString() + ".ump");
+    final byte[] bytes = umple.getBytes(StandardCharsets.UTF_8);
+    Files.createDirectories(file.getParent());
+    Files.write(file, bytes);
+
+    return bytes.length;
+  }
+
+  /**
+   * Writes the Umple file through commons-io and sizes it by reading its length back, the baseline of
+   * {@link #writeUmple()}.
+   */
+  @Benchmark
+  public long writeUmpleCommonsIO() throws IOException {
+    final File file = new File(outputPath.toString() + ".ump");
+    FileUtils.write(file, umple);
+
+    return file.length();
+  }
+}
@@ -1,8 +1,10 @@
 package cruise.umple.umpr.core;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -12,23 +14,31 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import cruise.umple.umpr.core.consistent.Consistents;
+import cruise.umple.umpr.core.consistent.ImportFile;
 import cruise.umple.umpr.core.consistent.ImportRepositorySet;
+import cruise.umple.umpr.core.consistent.IncrementalIndex;
 import cruise.umple.umpr.core.entities.ImportEntity;
+import cruise.umple.umpr.core.util.HttpArchive;
+import cruise.umple.umpr.core.util.HttpCache;
+import cruise.umple.umpr.core.util.Networks;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.inject.Guice;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
@@ -51,10 +61,113 @@ public class ConsoleMain {
             "there are no guarantees to which repositories are used or what order. (-1 implies no limit)")
     int limit = -1;
     
+    @Parameter(names={"--shard"}, description="Only import this node's share of the entities when splitting a run "
+        + "across N nodes, written as i/N with i from 0 to N-1. The share of an entity only depends on its repository "
+        + "and path.")
+    String shard = ImportShard.ALL.toString();
+    
     @Parameter(names={"-O", "--override"}, description="Force overriding of the output folders, "
         + "i.e. remove output folder contents.")
     boolean override = false;
     
+    @Parameter(names={"--sync"}, description="Synchronize the output folders with the results of the run, only "
+        + "files whose content changed are written and only stale files are deleted. Implies --override.")
+    boolean sync = false;
+    
+    @Parameter(names={"--fetch-threads"}, description="Number of threads used to fetch import content, "
+        + "fetching is I/O-bound.")
+    int fetchThreads = ImportEngine.DEFAULT_FETCH_THREADS;
+    
+    @Parameter(names={"--virtual-fetch"}, description="Fetch each entity on its own virtual thread, requires a JVM "
+        + "that supports virtual threads. Falls back to --fetch-threads otherwise.")
+    boolean virtualFetch = false;
+    
+    @Parameter(names={"--fetch-concurrency"}, description="Maximum number of concurrent fetches with --virtual-fetch.")
+    int fetchConcurrency = ImportEngine.DEFAULT_FETCH_CONCURRENCY;
+    
+    @Parameter(names={"--import-threads"}, description="Number of threads used to import and model content, "
+        + "importing is CPU-bound.")
+    int importThreads = ImportEngine.DEFAULT_IMPORT_THREADS;
+    
+    @Parameter(names={"--pipeline"}, description="Run the Fetch, Import and Model states as separate pipeline stages "
+        + "connected by bounded queues.")
+    boolean pipeline = false;
+    
+    @Parameter(names={"--model-threads"}, description="Number of threads used to model content when pipelined.")
+    int modelThreads = ImportEngine.DEFAULT_IMPORT_THREADS;
+    
+    @Parameter(names={"--queue-capacity"}, description="Capacity of the queues between pipeline stages.")
+    int queueCapacity = ImportEngine.DEFAULT_QUEUE_CAPACITY;
+    
+    @Parameter(names={"--fetch-timeout"}, description="Seconds an entity may spend fetching before it is abandoned "
+        + "and failed, 0 for no limit.")
+    long fetchTimeout = 0;
+    
+    @Parameter(names={"--import-timeout"}, description="Seconds an entity may spend importing before it is abandoned "
+        + "and failed, 0 for no limit.")
+    long importTimeout = 0;
+    
+    @Parameter(names={"--model-timeout"}, description="Seconds an entity may spend modelling before it is abandoned "
+        + "and failed, 0 for no limit.")
+    long modelTimeout = 0;
+    
+    @Parameter(names={"--warm-up"}, description="Initialize the Umple compiler on every import and model thread "
+        + "before importing, thus the first files are not slowed by it.")
+    boolean warmUp = false;
+    
+    @Parameter(names={"--reuse-handlers"}, description="Reuse the import handler of each thread for its next import "
+        + "instead of creating one per file.")
+    boolean reuseHandlers = false;
+    
+    @Parameter(names={"--workers"}, description="Number of child JVMs to run the Umple compiler in, each is reused "
+        + "for many files and restarted if it crashes. 0 runs the compiler in this JVM.")
+    int workers = 0;
+    
+    @Parameter(names={"--worker-heap"}, description="Maximum heap of each --workers JVM in megabytes, a worker that "
+        + "runs out of heap only fails the file it was importing.")
+    int workerHeap = UmpleWorkerPool.DEFAULT_HEAP;
+    
+    // main class of the --workers JVMs, it must serve requests like UmpleWorker
+    Class<?> workerMain = UmpleWorker.class;
+    
+    @Parameter(names={"--http-cache"}, description="Folder to persistently cache downloaded content in, repeated runs "
+        + "only download content that changed.")
+    File httpCache = null;
+    
+    @Parameter(names={"--http-cache-size"}, description="Maximum size of the --http-cache in megabytes, the least "
+        + "recently used content is removed first.")
+    long httpCacheSize = 1024;
+    
+    @Parameter(names={"--http-record"}, description="Archive file to record every HTTP response of the run in, "
+        + "for use with --http-replay.")
+    File httpRecord = null;
+    
+    @Parameter(names={"--http-replay"}, description="Archive file recorded with --http-record to serve every HTTP "
+        + "response from, no requests are sent.")
+    File httpReplay = null;
+    
+    @Parameter(names={"--incremental"}, description="Reuse the results of the previous run in the output folder for "
+        + "content that has not changed.")
+    boolean incremental = false;
+    
+    @Parameter(names={"--probe-timeout"}, description="Seconds to wait for all repositories to respond to the "
+        + "accessibility probes, repositories that have not responded are skipped.")
+    long probeTimeout = TimeUnit.MILLISECONDS.toSeconds(RepositoryProbe.DEFAULT_TIMEOUT);
+    
+    @Parameter(names={"--probe-cache"}, description="File to remember reachable repositories in across runs.")
+    File probeCache = null;
+    
+    @Parameter(names={"--probe-ttl"}, description="Minutes a reachable repository is not probed again, "
+        + "0 probes every repository on every run.")
+    long probeTtl = TimeUnit.MILLISECONDS.toMinutes(RepositoryProbe.DEFAULT_TTL);
+    
+    @Parameter(names={"--metrics-textfile"}, description="File to periodically write progress metrics to in the "
+        + "Prometheus text format. Metrics are always available over JMX.")
+    File metricsTextfile = null;
+    
+    @Parameter(names={"--metrics-interval"}, description="Seconds between writes of the --metrics-textfile.")
+    long metricsInterval = 15;
+    
     @Parameter(names = {"-h", "-?", "--help"}, help = true, description="Print help message.")
     boolean help;
 
@@ -73,6 +186,33 @@ public class ConsoleMain {
               ", outputFolder=" + outputFolder +
               ", respositories=" + respositories +
               ", limit=" + limit +
+              ", shard=" + shard +
+              ", override=" + override +
+              ", sync=" + sync +
+              ", incremental=" + incremental +
+              ", probeTimeout=" + probeTimeout +
+              ", probeCache=" + probeCache +
+              ", probeTtl=" + probeTtl +
+              ", metricsTextfile=" + metricsTextfile +
+              ", metricsInterval=" + metricsInterval +
+              ", httpCache=" + httpCache +
+              ", httpCacheSize=" + httpCacheSize +
+              ", httpRecord=" + httpRecord +
+              ", httpReplay=" + httpReplay +
+              ", fetchThreads=" + fetchThreads +
+              ", virtualFetch=" + virtualFetch +
+              ", fetchConcurrency=" + fetchConcurrency +
+              ", importThreads=" + importThreads +
+              ", pipeline=" + pipeline +
+              ", modelThreads=" + modelThreads +
+              ", queueCapacity=" + queueCapacity +
+              ", fetchTimeout=" + fetchTimeout +
+              ", importTimeout=" + importTimeout +
+              ", modelTimeout=" + modelTimeout +
+              ", warmUp=" + warmUp +
+              ", reuseHandlers=" + reuseHandlers +
+              ", workers=" + workers +
+              ", workerHeap=" + workerHeap +
               '}';
     }
 
@@ -112,8 +252,11 @@ public class ConsoleMain {
     main.run(cfg);
   }
   
-  private static final void removeDirectoryContents(final Path path) {
-    final Set<Path> ignorePaths = getIgnorePaths(path);
+  /**
+   * Removes the contents of a folder except hidden and ignored paths and the paths in {@code keep}.
+   */
+  private static final void removeDirectoryContents(final Path path, final Set<Path> keep) {
+    final Set<Path> ignorePaths = Sets.union(getIgnorePaths(path), keep);
     
     try {
       if (path.toFile().exists()) {
@@ -162,62 +305,17 @@ public class ConsoleMain {
     }
   }
   
-  private static void mergeDirs(final Config cfg, final Path src, final Path dest) {
-
-    final Set<Path> ignorePaths = getIgnorePaths(dest);
-    
-    try {
-      Files.walkFileTree(src, new SimpleFileVisitor<Path>() {
-          
-          final Path outputPath = dest;
-          
-          @Override
-          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-            if (dir.toFile().isHidden()) { 
-              // skip hidden directories
-              return FileVisitResult.SKIP_SUBTREE;
-            }
-            
-            final Path relative = src.relativize(dir);
-            final Path fixed = outputPath.resolve(relative);
-            
-            if (ignorePaths.contains(fixed)) {
-              return FileVisitResult.SKIP_SUBTREE;
-            }
-            
-            final File fdir = fixed.toFile();
-            
-            fdir.mkdirs();
-            
-            return FileVisitResult.CONTINUE;
-          }
-          
-          @Override
-          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-            final Path relative = src.relativize(file);
-            final Path fixed = outputPath.resolve(relative);
-            if (ignorePaths.contains(fixed)) {
-              return FileVisitResult.SKIP_SUBTREE;
-            }
-            
-            final File ffile = fixed.toFile();
-            if (ffile.exists()) {
-              ffile.delete();
-            }
-            
-            Files.move(file, fixed);
-            
-            return FileVisitResult.CONTINUE;
-          }
-
-        });
-    } catch (IOException ioe) {
-      throw Throwables.propagate(ioe);
-    }
+  private static Set<Path> resolveAll(final Path folder, final List<String> names) {
+    return names.stream().map(folder::resolve).collect(Collectors.toSet());
   }
   
   public static final Path IGNORE_FILE = Paths.get(".umpr.core.ignore");
   
+  /**
+   * Name of the metadata file written to the output folder. 
+   */
+  static final String META_FILE = "meta.json";
+  
   /**
    * Gets the ignore paths from a folder, if the ignore file exists ({@value #IGNORE_FILE}). If the file exists, the 
    * {@link Set} returned has all the paths resolved against the {@code folder} parameter including 
@@ -243,28 +341,77 @@ public class ConsoleMain {
   }
  
   /**
-   * Run the main console function which produces a {@link Set} of {@link ImportRuntimeData} instances based on the
+   * Run the main console function which produces a {@link Set} of {@link ImportResult} instances based on the
    * configuration. 
    * 
    * @param cfg Configuration data
-   * @return Non-{@code null}, possibly empty {@link Set} of {@link ImportRuntimeData}. 
+   * @return Non-{@code null}, possibly empty {@link Set} of {@link ImportResult}. 
    * @since Feb 25, 2015
    */
-  public Set<ImportFSM> run(final Config cfg) {
-      
-    Path workingDir, importWorkingDir;
-    try {
-      workingDir = Files.createTempDirectory(getClass().getName() + "-WorkingDirectory");
-      importWorkingDir = Files.createTempDirectory(getClass().getName() + "-ImportWorkingDirectory");
-    } catch (IOException e) {
-      throw Throwables.propagate(e);
+  public Set<ImportResult> run(final Config cfg) {
+    
+    // stage inside the output folders, thus the results are moved into place with a rename per repository, the 
+    // metadata is written afterwards
+    final Set<Path> outputIgnores = ImmutableSet.<Path>builder()
+        .addAll(getIgnorePaths(cfg.outputFolder.toPath()))
+        .add(cfg.outputFolder.toPath().resolve(META_FILE))
+        .build();
+    
+    try (HttpArchive archive = openArchive(cfg);
+        OutputStager outputStager = new OutputStager(cfg.outputFolder.toPath(), outputIgnores);
+        OutputStager importStager = new OutputStager(cfg.importFileFolder.toPath(), 
+            getIgnorePaths(cfg.importFileFolder.toPath()))) {
+      Networks.setArchive(Optional.ofNullable(archive));
+      try {
+        final Set<ImportResult> results = run(cfg, outputStager, importStager);
+
+        // a failed run is not recorded, the previous recording is kept
+        if (archive != null) {
+          archive.commit();
+        }
+
+        return results;
+      } finally {
+        Networks.setArchive(Optional.empty());
+        Networks.setCache(Optional.empty());
+      }
+    } catch (IOException ioe) {
+      throw Throwables.propagate(ioe);
     }
+  }
+  
+  /**
+   * Opens the {@link HttpArchive} to record to or replay from.
+   * 
+   * @return {@code null} if neither recording nor replaying.
+   */
+  private static HttpArchive openArchive(final Config cfg) throws IOException {
+    checkArgument(cfg.httpRecord == null || cfg.httpReplay == null, 
+        "Can not record and replay HTTP responses at the same time.");
+    
+    if (cfg.httpRecord != null) {
+      return HttpArchive.record(cfg.httpRecord.toPath());
+    } else if (cfg.httpReplay != null) {
+      return HttpArchive.replay(cfg.httpReplay.toPath());
+    }
+    
+    return null;
+  }
+  
+  private Set<ImportResult> run(final Config cfg, final OutputStager outputStager, final OutputStager importStager) 
+      throws IOException {
+    
+    final ImportShard shard = ImportShard.parse(cfg.shard);
+    
+    final Path workingDir = outputStager.getStagingDir();
+    final Path importWorkingDir = importStager.getStagingDir();
     
     logger.info("Working directory: " + workingDir.toString());
     logger.info("Import working directory: " + importWorkingDir.toString());
     
-    cfg.outputFolder.mkdirs();
-    cfg.importFileFolder.mkdirs();
+    if (cfg.httpCache != null) {
+      Networks.setCache(Optional.of(new HttpCache(cfg.httpCache.toPath(), cfg.httpCacheSize * 1024 * 1024)));
+    }
 
     Stream<Repository> repos = repositories.stream();
     if (cfg.respositories.size() > 0) {
@@ -273,58 +420,118 @@ public class ConsoleMain {
         repos = repos.filter(r -> names.contains(r.getName()));
     }
 
-    Stream<ImportEntity> urls = repos.filter(Repository::isAccessible)
-            .peek(r -> this.logger.config("Loading Repository: " + r.getName()))
-            .flatMap(Repository::getImports);
+    // probe every repository at once rather than one after another
+    final RepositoryProbe probe = new RepositoryProbe(Optional.ofNullable(cfg.probeCache).map(File::toPath),
+        TimeUnit.MINUTES.toMillis(cfg.probeTtl), TimeUnit.SECONDS.toMillis(cfg.probeTimeout));
 
-    if (cfg.limit > -1) {
-        urls = urls.limit(cfg.limit);
-    }
+    final List<Repository> accessible = probe.probe(repos.collect(Collectors.toList()));
+    
+    final Path jsonPath = cfg.outputFolder.toPath().resolve(META_FILE);
     
-    final Set<ImportFSM> allData = urls.parallel() 
-        .map(tr -> new ImportFSM(Paths.get(workingDir.toString(), tr.getRepository().getName(), tr.getPath().toString()),
-                                 tr.getImportType(), tr, tr.getRepository(), tr.getAttribLoc()))
-        .collect(Collectors.toSet());
+    final Optional<IncrementalIndex> incremental = cfg.incremental 
+        ? IncrementalIndex.load(jsonPath, cfg.outputFolder.toPath()) : Optional.empty();
+    incremental.ifPresent(idx -> logger.info("Incremental run, indexed " + idx.size() + " previous results."));
     
     // write the import files to the import working directory iff the fetch data exists AND there is no attribution loc
-    final EnumSet<ImportFSM.State> IMPORT_SUCCESS = EnumSet.complementOf(EnumSet.of(ImportFSM.State.Fetch));
-    allData.stream()
-      .filter(fsm -> !fsm.getAttribLoc().isPresent() && IMPORT_SUCCESS.contains(fsm.getState()))
-      .forEach(fsm -> {     
+    final EnumSet<ImportFSM.State> IMPORT_SUCCESS = EnumSet.complementOf(EnumSet.of(ImportFSM.State.Ready, 
+        ImportFSM.State.Fetch));
+    
+    // runs as each import finishes, afterwards only the ImportResult is kept
+    final Consumer<ImportFSM> onComplete = fsm -> {
+      if (!fsm.getAttribLoc().isPresent() && IMPORT_SUCCESS.contains(fsm.getState())) {
         final Path rel = workingDir.relativize(fsm.getOutputPath());
         final Path imp = importWorkingDir.resolve(rel);
+        try (OutputStream out = FileUtils.openOutputStream(imp.toFile())) {
+          fsm.getInputContent().get().copyTo(out);
+        } catch (IOException ioe) {
+          throw Throwables.propagate(ioe);
+        }
+      }
+      
+      // reused results keep their previously generated umple files
+      if (incremental.isPresent() && fsm.getReusedFrom().map(ImportFile::isSuccessful).orElse(false)) {
+        final Path previous = incremental.get().getUmpleFile(fsm.getRepository().getName(), 
+            fsm.getOutputPath().getFileName().toString());
         try {
-          FileUtils.write(imp.toFile(), fsm.getInputContent().get());
+          Files.createDirectories(fsm.getOutputPath().getParent());
+          Files.copy(previous, Paths.get(fsm.getOutputPath().toString() + ".ump"));
         } catch (IOException ioe) {
           throw Throwables.propagate(ioe);
         }
-      });
+      }
+    };
+    
+    final ImportMetrics metrics = new ImportMetrics();
+    metrics.register();
     
+    final Optional<PrometheusTextfile> textfile = Optional.ofNullable(cfg.metricsTextfile)
+        .map(f -> new PrometheusTextfile(metrics, f.toPath(), cfg.metricsInterval));
     
-    if (cfg.override) {
-      if (cfg.outputFolder.exists()) {
-        removeDirectoryContents(cfg.outputFolder.toPath());
+    final Set<ImportResult> allData;
+    ImportHandlers.setReuse(cfg.reuseHandlers);
+    
+    try (RepositoryDiscovery discovery = new RepositoryDiscovery(RepositoryDiscovery.DEFAULT_CAPACITY);
+        ImportEngine engine = new ImportEngine(cfg, incremental, metrics)) {
+      // discover every repository at once, importing starts with the first entity any of them finds
+      Stream<ImportEntity> urls = discovery.discover(accessible, probe::discover);
+      if (!shard.equals(ImportShard.ALL)) {
+        logger.info("Importing shard " + shard + ".");
+        urls = urls.filter(shard);
       }
       
-      if (cfg.importFileFolder.exists()) {
-        removeDirectoryContents(cfg.importFileFolder.toPath());
+      if (cfg.limit > -1) {
+        urls = urls.limit(cfg.limit);
       }
+      
+      if (cfg.warmUp) {
+        engine.warmUp();
+      }
+      
+      allData = ImmutableSet.copyOf(engine.run(urls, 
+          tr -> Paths.get(workingDir.toString(), tr.getRepository().getName(), tr.getPath().toString()),
+          onComplete));
+    } finally {
+      textfile.ifPresent(PrometheusTextfile::close);
+      metrics.unregister();
+    }
+    
+    logger.info("Imported " + metrics.getSucceeded() + " of " + metrics.getDiscovered() + " entities, fetched " 
+        + metrics.getBytesFetched() + " bytes.");
+    
+    try {
+      probe.save();
+    } catch (IOException ioe) {
+      logger.warning("Could not save repository probe cache: " + ioe.getMessage());
     }
     
-    mergeDirs(cfg, workingDir, cfg.outputFolder.toPath());
-    mergeDirs(cfg, importWorkingDir, cfg.importFileFolder.toPath());
+    if (cfg.sync) {
+      logger.info("Synchronized output folder: " + outputStager.sync());
+      logger.info("Synchronized import folder: " + importStager.sync());
+    } else {
+      // when overriding, each committed folder replaces the previous one wholesale
+      final List<String> outputCommitted = outputStager.commit(!cfg.override);
+      final List<String> importCommitted = importStager.commit(!cfg.override);
+      
+      if (cfg.override) {
+        // only afterwards, thus the output folders are never half-populated
+        removeDirectoryContents(cfg.outputFolder.toPath(), ImmutableSet.<Path>builder()
+            .addAll(resolveAll(cfg.outputFolder.toPath(), outputCommitted))
+            .add(cfg.outputFolder.toPath().resolve(META_FILE))
+            .build());
+        removeDirectoryContents(cfg.importFileFolder.toPath(), 
+            resolveAll(cfg.importFileFolder.toPath(), importCommitted));
+      }
+    }
     
     logger.info("Saved Umple files to: " + cfg.outputFolder.getPath());
     
+    Networks.getAllStatistics().forEach(stats -> logger.info("Fetched: " + stats));
+    
     final ImportRepositorySet set = Consistents.buildImportRepositorySet(cfg.outputFolder.toPath(), 
         cfg.importFileFolder.toPath(), allData);
 
-    final String json = Consistents.toJson(set);
-    
-    final Path jsonPath = cfg.outputFolder.toPath().resolve("meta.json");
-    
-    try (FileOutputStream fos = new FileOutputStream(jsonPath.toFile())) {
-      IOUtils.write(json, fos);
+    try {
+      Consistents.toJson(set, jsonPath);
       
       logger.info("Metadata written to: " + jsonPath);
     } catch (IOException e) {
@@ -332,6 +539,6 @@ public class ConsoleMain {
       throw Throwables.propagate(e);
     }
     
-    return ImmutableSet.copyOf(allData);
+    return allData;
   }
 }
@@ -0,0 +1,641 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import cruise.umple.umpr.core.consistent.ImportFile;
+import cruise.umple.umpr.core.consistent.IncrementalIndex;
+import cruise.umple.umpr.core.entities.ImportEntity;
+import cruise.umple.umpr.core.util.FlightEvents;
+import cruise.umple.umpr.core.util.VirtualThreads;
+
+import org.apache.commons.io.FileUtils;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs {@link ImportFSM} instances on dedicated, independently sized thread pools instead of the JVM-wide common
+ * {@link java.util.concurrent.ForkJoinPool}. The {@link ImportFSM.State#Fetch} work is I/O-bound and runs on the
+ * <em>fetch</em> pool while the {@link ImportFSM.State#Import} and {@link ImportFSM.State#Model} work is CPU-bound and
+ * runs on the <em>import</em> pool.
+ *
+ * <p>
+ * The number of entities in-flight at once is bounded, thus a large {@link Repository} does not queue every entity
+ * up-front. If {@link ConsoleMain.Config#pipeline} is set, the states are run as an {@link ImportPipeline} with the
+ * {@link ImportFSM.State#Model} state on its own pool.
+ * </p>
+ *
+ * <p>
+ * If {@link ConsoleMain.Config#virtualFetch} is set and the running JDK supports virtual threads, each fetch runs on its
+ * own virtual thread instead of the fetch pool. The number of concurrent fetches is then capped by
+ * {@link ConsoleMain.Config#fetchConcurrency}.
+ * </p>
+ *
+ * <p>
+ * If an {@link IncrementalIndex} is given, entities whose fetched content is unchanged since the previous run are not
+ * imported, they {@link ImportFSM#reuse(ImportFile) reuse} the previous result instead.
+ * </p>
+ *
+ * <p>
+ * The Umple compiler can be {@link #warmUp() warmed up} on every worker before the first run, see
+ * {@link ImportHandlers} to also reuse import handlers between files.
+ * </p>
+ *
+ * <p>
+ * Each state may be given a time budget, see {@link ConsoleMain.Config#importTimeout}. A {@link StageWatchdog}
+ * interrupts a state that runs past its budget and the entity is abandoned: it fails with a timeout, its slot is freed
+ * and its pool gets a replacement thread until the stuck state returns on its own. A stuck fetch on virtual threads
+ * likewise gets an extra share of {@link ConsoleMain.Config#fetchConcurrency} until it returns.
+ * With {@link ConsoleMain.Config#workers}, the Umple compiler runs in an {@link UmpleWorkerPool} owned by the engine;
+ * the child of an interrupted state is stopped, thus the state returns right away.
+ * </p>
+ *
+ * <p>
+ * Progress is recorded in {@link ImportMetrics} as entities are discovered, change state and complete. Each state
+ * transition is also emitted as a {@link FlightEvents.Stage} for Java Flight Recorder.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public class ImportEngine implements AutoCloseable {
+
+  /**
+   * Default number of threads used for fetching content, fetching is mostly waiting on the network.
+   */
+  public static final int DEFAULT_FETCH_THREADS = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+
+  /**
+   * Default number of threads used for importing and modelling, this is CPU-bound work.
+   */
+  public static final int DEFAULT_IMPORT_THREADS = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Default capacity of the queues between pipeline stages.
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+  /**
+   * Default number of concurrent fetches when fetching on virtual threads.
+   */
+  public static final int DEFAULT_FETCH_CONCURRENCY = 256;
+
+  /**
+   * Name of the {@link ImportMetrics} queue counting entities in-flight when not pipelined.
+   */
+  static final String IN_FLIGHT_QUEUE = "inFlight";
+
+  private final Logger logger = Logger.getLogger(ImportEngine.class.getName());
+
+  private final ConsoleMain.Config cfg;
+
+  private final ExecutorService fetchPool;
+  private final Executor fetchExecutor;
+  private final int fetchWorkers;
+
+  /**
+   * Caps the fetches running at once on virtual threads, which are not pooled.
+   */
+  private final Optional<Semaphore> fetchPermits;
+  private final ExecutorService importPool;
+  private final Optional<ExecutorService> modelPool;
+
+  private final int maxInFlight;
+  private final Semaphore inFlight;
+
+  private final Optional<IncrementalIndex> incremental;
+
+  private final ImportMetrics metrics;
+
+  private final StageWatchdog watchdog;
+
+  /**
+   * Child JVMs running the Umple compiler, see {@link ConsoleMain.Config#workers}.
+   */
+  private final Optional<UmpleWorkerPool> workers;
+
+  /**
+   * Entities that were abandoned by the {@link #watchdog} and whose stuck state has not returned yet.
+   */
+  private final Set<ImportFSM> abandoned = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Results of the entities in-flight when not pipelined, completed early if an entity is abandoned.
+   */
+  private final ConcurrentMap<ImportFSM, CompletableFuture<ImportResult>> pending = new ConcurrentHashMap<>();
+
+  /**
+   * Number of abandoned states that have not returned yet, {@link #close()} does not wait for them.
+   */
+  private final AtomicInteger stuck = new AtomicInteger();
+
+  /**
+   * The pipeline while running pipelined.
+   */
+  private volatile Optional<ImportPipeline> pipeline = Optional.empty();
+
+  /**
+   * Creates a new engine with its own thread pools.
+   *
+   * @param cfg Configuration holding the pool sizes, all must be positive
+   *
+   * @since Oct 18, 2026
+   */
+  public ImportEngine(final ConsoleMain.Config cfg) {
+    this(cfg, Optional.empty());
+  }
+
+  /**
+   * Creates a new engine with its own thread pools that reuses unchanged results of a previous run.
+   *
+   * @param cfg Configuration holding the pool sizes, all must be positive
+   * @param incremental Results of a previous run
+   *
+   * @since Oct 18, 2026
+   */
+  public ImportEngine(final ConsoleMain.Config cfg, final Optional<IncrementalIndex> incremental) {
+    this(cfg, incremental, new ImportMetrics());
+  }
+
+  /**
+   * Creates a new engine with its own thread pools that reuses unchanged results of a previous run and records its
+   * progress.
+   *
+   * @param cfg Configuration holding the pool sizes, all must be positive
+   * @param incremental Results of a previous run
+   * @param metrics Metrics to record progress in
+   *
+   * @since Oct 18, 2026
+   */
+  public ImportEngine(final ConsoleMain.Config cfg, final Optional<IncrementalIndex> incremental,
+      final ImportMetrics metrics) {
+    this.cfg = checkNotNull(cfg);
+    this.incremental = checkNotNull(incremental);
+    this.metrics = checkNotNull(metrics);
+
+    checkArgument(cfg.fetchThreads > 0, "fetchThreads must be positive: %s", cfg.fetchThreads);
+    checkArgument(cfg.importThreads > 0, "importThreads must be positive: %s", cfg.importThreads);
+    checkArgument(cfg.modelThreads > 0, "modelThreads must be positive: %s", cfg.modelThreads);
+    checkArgument(cfg.queueCapacity > 0, "queueCapacity must be positive: %s", cfg.queueCapacity);
+
+    checkArgument(cfg.fetchConcurrency > 0, "fetchConcurrency must be positive: %s", cfg.fetchConcurrency);
+
+    checkArgument(cfg.workers >= 0, "workers must not be negative: %s", cfg.workers);
+
+    this.watchdog = new StageWatchdog(StageWatchdog.budgets(cfg));
+
+    this.workers = cfg.workers > 0
+        ? Optional.of(new UmpleWorkerPool(cfg.workers, cfg.workerHeap, cfg.reuseHandlers, cfg.workerMain))
+        : Optional.empty();
+    workers.ifPresent(pool -> UmpleCompiler.setWorkers(workers));
+
+    final boolean virtual = cfg.virtualFetch && VirtualThreads.isSupported();
+    if (cfg.virtualFetch && !virtual) {
+      logger.warning("Virtual threads are not supported by this JVM, fetching with " + cfg.fetchThreads + " threads.");
+    }
+    
+    final Optional<ExecutorService> virtualPool = virtual
+        ? VirtualThreads.newThreadPerTaskExecutor("umpr-fetch-") : Optional.empty();
+
+    if (virtualPool.isPresent()) {
+      this.fetchPool = virtualPool.get();
+      this.fetchWorkers = cfg.fetchConcurrency;
+      
+      final Semaphore permits = new Semaphore(fetchWorkers);
+      this.fetchPermits = Optional.of(permits);
+      this.fetchExecutor = task -> fetchPool.execute(() -> {
+        permits.acquireUninterruptibly();
+        try {
+          task.run();
+        } finally {
+          permits.release();
+        }
+      });
+    } else {
+      this.fetchPool = newPool("umpr-fetch-%d", cfg.fetchThreads);
+      this.fetchWorkers = cfg.fetchThreads;
+      this.fetchPermits = Optional.empty();
+      this.fetchExecutor = fetchPool;
+    }
+    this.importPool = newPool("umpr-import-%d", cfg.importThreads);
+    this.modelPool = cfg.pipeline ? Optional.of(newPool("umpr-model-%d", cfg.modelThreads)) : Optional.empty();
+
+    // keep every worker busy with one waiting entity, but do not materialize the entire stream
+    this.maxInFlight = 2 * (fetchWorkers + cfg.importThreads);
+    this.inFlight = new Semaphore(maxInFlight);
+
+    logger.config("Created ImportEngine: fetchWorkers=" + fetchWorkers + ", virtualFetch=" + virtualPool.isPresent()
+        + ", importThreads=" + cfg.importThreads + ", pipeline=" + cfg.pipeline + ", workers=" + cfg.workers);
+  }
+
+  /**
+   * Initializes the Umple compiler once on every import and model thread by importing and modelling a tiny model, 
+   * thus the first real file of each worker does not pay for loading it. Failures are logged, not thrown, as the run 
+   * does not depend on the warm-up.
+   *
+   * @since Oct 18, 2026
+   */
+  public void warmUp() {
+    warmUp(UmpleWarmUp::run);
+  }
+
+  /**
+   * Work run once on every import and model thread by {@link ImportEngine#warmUp()}.
+   */
+  @FunctionalInterface
+  interface WarmUpTask {
+
+    /**
+     * @param dir Folder for the files of the current thread, it does not exist yet
+     */
+    void run(Path dir) throws Exception;
+  }
+
+  /**
+   * Runs {@code task} once on every import and model thread, see {@link #warmUp()}.
+   */
+  void warmUp(final WarmUpTask task) {
+    final long start = System.nanoTime();
+    
+    final Path scratch;
+    try {
+      scratch = Files.createTempDirectory("umpr-warmup-");
+    } catch (IOException ioe) {
+      logger.warning("Could not create warm-up folder: " + ioe.getMessage());
+      return;
+    }
+    
+    try {
+      warmUp(importPool, cfg.importThreads, scratch, task);
+      modelPool.ifPresent(pool -> warmUp(pool, cfg.modelThreads, scratch, task));
+    } finally {
+      FileUtils.deleteQuietly(scratch.toFile());
+    }
+    
+    logger.info("Warmed up in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms.");
+  }
+  
+  /**
+   * Runs {@code task} once on each of the {@code threads} threads of {@code pool}.
+   */
+  private void warmUp(final ExecutorService pool, final int threads, final Path scratch, final WarmUpTask task) {
+    // every task waits for all of the others to start, thus each runs on its own thread
+    final CountDownLatch started = new CountDownLatch(threads);
+    
+    final List<Future<?>> runs = new ArrayList<>(threads);
+    for (int i = 0; i < threads; ++i) {
+      runs.add(pool.submit(() -> {
+        started.countDown();
+        started.await();
+        
+        task.run(scratch.resolve(Thread.currentThread().getName()));
+        return null;
+      }));
+    }
+    
+    for (Future<?> run : runs) {
+      try {
+        run.get();
+      } catch (ExecutionException ee) {
+        logger.warning("Warm-up failed:\n" + Throwables.getStackTraceAsString(ee.getCause()));
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Runs the {@link ImportFSM.State#Fetch} state and reuses the previous result if the content is unchanged.
+   *
+   * @return {@code true} if the {@link ImportFSM} should continue to be imported.
+   */
+  private boolean fetch(final ImportFSM fsm) {
+    final FlightEvents.Stage event = beginStage(fsm);
+    final StageWatchdog.Watch watch = watch(fsm, ImportFSM.State.Fetch);
+    fsm.stage();
+    final boolean expired = watch.stop();
+    metrics.moved(fsm, ImportFSM.State.Ready);
+
+    if (expired) {
+      returned(ImportFSM.State.Fetch);
+      event.end(fsm.getState().toString(), false);
+      return false;
+    }
+
+    if (fsm.isSuccessful() && incremental.isPresent()) {
+      final Optional<ImportFile> previous = incremental.get().findUnchanged(fsm.getRepository().getName(),
+          fsm.getOutputPath().getFileName().toString(), fsm.getInputHash().get());
+
+      if (previous.isPresent()) {
+        logger.fine("Content unchanged, reusing previous result: " + fsm.getOutputPath());
+        fsm.reuse(previous.get());
+        metrics.moved(fsm, ImportFSM.State.Fetch);
+      }
+    }
+    event.end(fsm.getState().toString(), fsm.isSuccessful());
+
+    return fsm.getState() == ImportFSM.State.Fetch && fsm.isSuccessful();
+  }
+
+  /**
+   * Runs the next state of an {@link ImportFSM}.
+   *
+   * @return {@code true} if the {@link ImportFSM} advanced and should continue.
+   */
+  private boolean advance(final ImportFSM fsm) {
+    final ImportFSM.State from = fsm.getState();
+    final ImportFSM.State to = from == ImportFSM.State.Fetch ? ImportFSM.State.Import : ImportFSM.State.Model;
+
+    final FlightEvents.Stage event = beginStage(fsm);
+    final StageWatchdog.Watch watch = watch(fsm, to);
+    final boolean advanced = fsm.advance();
+    final boolean expired = watch.stop();
+    metrics.moved(fsm, from);
+    event.end(fsm.getState().toString(), fsm.isSuccessful() && !expired);
+
+    if (expired) {
+      returned(to);
+      return false;
+    }
+
+    return advanced;
+  }
+
+  /**
+   * Watches {@code state} of an {@link ImportFSM} that is about to run on the current thread.
+   */
+  private StageWatchdog.Watch watch(final ImportFSM fsm, final ImportFSM.State state) {
+    return watchdog.watch(fsm, state, timeout -> abandon(fsm, state, timeout));
+  }
+
+  /**
+   * Abandons an {@link ImportFSM} stuck in {@code state}, called on the watchdog thread. The entity is completed as
+   * failed and its pool gets a thread to replace the stuck one, or a fetch permit on virtual threads.
+   */
+  private void abandon(final ImportFSM fsm, final ImportFSM.State state,
+      final StageWatchdog.StageTimeoutException timeout) {
+    logger.warning("Abandoning " + fsm.getOutputPath() + ": " + timeout.getMessage());
+
+    stuck.incrementAndGet();
+    poolFor(state).ifPresent(pool -> resize(pool, 1));
+    if (state == ImportFSM.State.Fetch) {
+      // the stuck fetch keeps its permit, its replacement gets a new one
+      fetchPermits.ifPresent(Semaphore::release);
+    }
+
+    final ImportResult result = ImportResult.failed(fsm, state, timeout);
+    metrics.completed(fsm, result);
+
+    final Optional<ImportPipeline> running = pipeline;
+    if (running.isPresent()) {
+      running.get().abandon(fsm, state, result);
+    } else {
+      abandoned.add(fsm);
+
+      final CompletableFuture<ImportResult> future = pending.remove(fsm);
+      if (future != null) {
+        future.complete(result);
+      }
+    }
+  }
+
+  /**
+   * Removes the replacement thread or fetch permit added when a stuck {@code state} was abandoned, called on its
+   * thread once it returns.
+   */
+  private void returned(final ImportFSM.State state) {
+    stuck.decrementAndGet();
+    poolFor(state).ifPresent(pool -> resize(pool, -1));
+    if (state == ImportFSM.State.Fetch) {
+      // takes back the extra permit, the returned fetch still releases its own once its task ends
+      fetchPermits.ifPresent(Semaphore::acquireUninterruptibly);
+    }
+  }
+
+  /**
+   * Gets the pool running {@code state}, if its size can change.
+   */
+  private Optional<ThreadPoolExecutor> poolFor(final ImportFSM.State state) {
+    final ExecutorService pool;
+    if (state == ImportFSM.State.Fetch) {
+      pool = fetchPool;
+    } else if (state == ImportFSM.State.Model && modelPool.isPresent()) {
+      pool = modelPool.get();
+    } else {
+      pool = importPool;
+    }
+
+    return pool instanceof ThreadPoolExecutor ? Optional.of((ThreadPoolExecutor) pool) : Optional.empty();
+  }
+
+  private static void resize(final ThreadPoolExecutor pool, final int delta) {
+    synchronized (pool) {
+      // the core size may never be larger than the maximum size
+      if (delta > 0) {
+        pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+        pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+      } else {
+        pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+        pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+      }
+    }
+  }
+
+  /**
+   * Begins a {@link FlightEvents.Stage} leaving the current state of an {@link ImportFSM}.
+   */
+  private static FlightEvents.Stage beginStage(final ImportFSM fsm) {
+    return FlightEvents.beginStage(fsm.getRepository().getName(), fsm.getEntity().getPath().toString(),
+        fsm.getImportType().getName(), fsm.getState().toString());
+  }
+
+  /**
+   * Passes a finished {@link ImportFSM} to {@code onComplete}, then reduces it to its result and releases its content.
+   */
+  private ImportResult complete(final ImportFSM fsm, final Consumer<? super ImportFSM> onComplete) {
+    try {
+      onComplete.accept(fsm);
+    } catch (Throwable t) {
+      logger.warning("Completing " + fsm.getOutputPath() + " failed:\n" + Throwables.getStackTraceAsString(t));
+      fsm.setFailure(Optional.of(t));
+    }
+
+    final ImportResult result = fsm.toResult();
+    fsm.release();
+    metrics.completed(fsm, result);
+
+    return result;
+  }
+
+  private static String queueName(final ImportFSM.State stage) {
+    return stage.toString().toLowerCase();
+  }
+
+  private static ExecutorService newPool(final String nameFormat, final int threads) {
+    return Executors.newFixedThreadPool(threads,
+        new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build());
+  }
+
+  /**
+   * Runs every {@link ImportEntity} through an {@link ImportFSM}. This call blocks until all entities are completed.
+   *
+   * @param entities Entities to import, consumed on the calling thread
+   * @param outputPaths Function computing the output path of an entity
+   * @return Non-{@code null}, possibly empty {@link List} of results.
+   *
+   * @since Oct 18, 2026
+   * @see #run(Stream, Function, Consumer)
+   */
+  public List<ImportResult> run(final Stream<ImportEntity> entities, final Function<ImportEntity, Path> outputPaths) {
+    return run(entities, outputPaths, fsm -> { });
+  }
+
+  /**
+   * Runs every {@link ImportEntity} through an {@link ImportFSM}. This call blocks until all entities are completed.
+   * Each {@link ImportFSM} is passed to {@code onComplete} once it stops running, this is the last chance to use its
+   * content: afterwards it is reduced to an {@link ImportResult} and released. If {@code onComplete} throws, the
+   * {@link ImportFSM} is marked as failed.
+   *
+   * @param entities Entities to import, consumed on the calling thread
+   * @param outputPaths Function computing the output path of an entity
+   * @param onComplete Called for every {@link ImportFSM} on the worker thread that finished it
+   * @return Non-{@code null}, possibly empty {@link List} of results.
+   *
+   * @since Oct 18, 2026
+   */
+  public List<ImportResult> run(final Stream<ImportEntity> entities, final Function<ImportEntity, Path> outputPaths,
+      final Consumer<? super ImportFSM> onComplete) {
+    checkNotNull(entities);
+    checkNotNull(outputPaths);
+    checkNotNull(onComplete);
+
+    if (modelPool.isPresent()) {
+      final ImportPipeline pipeline = new ImportPipeline(cfg.queueCapacity, 
+          fetchExecutor, fetchWorkers, this::fetch, this::advance,
+          importPool, cfg.importThreads, 
+          modelPool.get(), cfg.modelThreads,
+          fsm -> complete(fsm, onComplete));
+
+      final List<ImportFSM.State> stages = ImmutableList.of(ImportFSM.State.Fetch, ImportFSM.State.Import,
+          ImportFSM.State.Model);
+      stages.forEach(state -> metrics.addQueue(queueName(state), () -> pipeline.queueDepth(state)));
+      this.pipeline = Optional.of(pipeline);
+      try {
+        return pipeline.run(entities.peek(entity -> metrics.discovered(entity.getRepository())), outputPaths);
+      } finally {
+        this.pipeline = Optional.empty();
+        stages.forEach(state -> metrics.removeQueue(queueName(state)));
+      }
+    }
+
+    final List<CompletableFuture<ImportResult>> futures = new ArrayList<>();
+
+    metrics.addQueue(IN_FLIGHT_QUEUE, () -> maxInFlight - inFlight.availablePermits());
+    try {
+      entities.sequential().forEach(entity -> {
+        inFlight.acquireUninterruptibly();
+
+        final ImportFSM fsm = new ImportFSM(outputPaths.apply(entity), entity.getImportType(), entity,
+            entity.getRepository(), entity.getAttribLoc());
+        metrics.discovered(entity.getRepository());
+
+        // completed by the workers, or early if the entity is abandoned
+        final CompletableFuture<ImportResult> future = new CompletableFuture<>();
+        pending.put(fsm, future);
+
+        CompletableFuture
+            .supplyAsync(() -> fetch(fsm), fetchExecutor)
+            .thenApplyAsync(importing -> {
+              // Import, then Model, stops early on failure
+              if (importing && advance(fsm)) {
+                advance(fsm);
+              }
+
+              if (abandoned.remove(fsm)) {
+                // the result was completed when it was abandoned
+                fsm.release();
+                return null;
+              }
+              return complete(fsm, onComplete);
+            }, importPool)
+            .whenComplete((result, t) -> {
+              pending.remove(fsm);
+              if (t != null) {
+                future.completeExceptionally(t);
+              } else if (result != null) {
+                future.complete(result);
+              }
+            });
+
+        future.whenComplete((f, t) -> inFlight.release());
+        futures.add(future);
+      });
+
+      return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    } finally {
+      metrics.removeQueue(IN_FLIGHT_QUEUE);
+    }
+  }
+
+  /**
+   * Shuts down the thread pools, waiting shortly for running work to finish. If a stuck state was abandoned, its
+   * thread is left to return on its own and nothing is waited for.
+   */
+  @Override
+  public void close() {
+    watchdog.close();
+
+    // stops the children of abandoned stages, thus their threads return
+    if (workers.isPresent()) {
+      UmpleCompiler.setWorkers(Optional.empty());
+      workers.get().close();
+    }
+
+    fetchPool.shutdown();
+    importPool.shutdown();
+    modelPool.ifPresent(ExecutorService::shutdown);
+
+    if (stuck.get() > 0) {
+      logger.warning("Not waiting for " + stuck.get() + " abandoned stage(s) still running.");
+      return;
+    }
+
+    try {
+      fetchPool.awaitTermination(1, TimeUnit.MINUTES);
+      importPool.awaitTermination(1, TimeUnit.MINUTES);
+      if (modelPool.isPresent()) {
+        modelPool.get().awaitTermination(1, TimeUnit.MINUTES);
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
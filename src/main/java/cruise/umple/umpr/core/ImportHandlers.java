@@ -0,0 +1,75 @@
+package cruise.umple.umpr.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import cruise.umple.compiler.UmpleImportHandler;
+import cruise.umple.compiler.UmpleImportHandlerFactory;
+import cruise.umple.compiler.UmpleImportType;
+
+/**
+ * Supplies the {@link UmpleImportHandler} used to import a single file. By default every import creates a new handler,
+ * if {@link #setReuse(boolean) reuse} is enabled each thread keeps one idle handler per {@link UmpleImportType} and
+ * uses it for its next import of that type, thus the handler setup is paid once per worker instead of once per file.
+ *
+ * <p>
+ * Handlers can not be reset, a handler is only kept if its last import succeeded, otherwise its failure would be
+ * reported by the next import. Reuse assumes the handlers of the Umple build keep no other state between reads.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public abstract class ImportHandlers {
+
+  private ImportHandlers() {
+  }
+
+  private static volatile boolean reuse = false;
+
+  private static final ThreadLocal<Map<UmpleImportType, UmpleImportHandler>> idle =
+      ThreadLocal.withInitial(HashMap::new);
+
+  /**
+   * Enables or disables reusing handlers, disabling it does not release the handlers already kept.
+   *
+   * @param enabled {@code true} to reuse handlers per thread
+   */
+  public static void setReuse(final boolean enabled) {
+    reuse = enabled;
+  }
+
+  public static boolean isReuse() {
+    return reuse;
+  }
+
+  /**
+   * Gets a handler for an import on the current thread, it must be {@link #release(UmpleImportType,
+   * UmpleImportHandler) released} on the same thread once the import is done.
+   *
+   * @param type Type of the import
+   * @return A handler not in use by any other import.
+   */
+  public static UmpleImportHandler acquire(final UmpleImportType type) {
+    if (reuse) {
+      final UmpleImportHandler handler = idle.get().remove(type);
+      if (handler != null) {
+        return handler;
+      }
+    }
+
+    return UmpleImportHandlerFactory.create(type);
+  }
+
+  /**
+   * Returns a handler after its import, it is kept for the next import on the current thread if reuse is enabled and
+   * the import succeeded.
+   *
+   * @param type Type of the import
+   * @param handler Handler from {@link #acquire(UmpleImportType)}
+   */
+  public static void release(final UmpleImportType type, final UmpleImportHandler handler) {
+    if (reuse && handler != null && handler.isSuccessful()) {
+      idle.get().put(type, handler);
+    }
+  }
+}
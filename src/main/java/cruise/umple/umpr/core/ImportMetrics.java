@@ -0,0 +1,327 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.ToLongFunction;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+
+/**
+ * Live counters of an import run, updated by the {@link ImportEngine} as entities move through their
+ * {@link ImportFSM} states. The counters are kept per {@link Repository} and in total, they can be read over JMX once
+ * {@link #register() registered} or written in the Prometheus text format with {@link #writePrometheus(Writer)}.
+ *
+ * <p>
+ * Each {@link Repository} is registered as its own {@link RepositoryMetricsMXBean} under {@value #DOMAIN} when its
+ * first entity is discovered, the totals are registered as an {@link ImportMetricsMXBean}.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public final class ImportMetrics implements ImportMetricsMXBean {
+
+  /**
+   * JMX domain the metrics are registered in.
+   */
+  public static final String DOMAIN = "cruise.umple.umpr.core";
+
+  private static final Logger log = Logger.getLogger(ImportMetrics.class.getName());
+
+  /**
+   * Counters of a single {@link Repository}, or of all of them.
+   */
+  static final class Counters implements RepositoryMetricsMXBean {
+
+    private final LongAdder discovered = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bytesFetched = new LongAdder();
+
+    private final LongAdder[] inState = new LongAdder[ImportFSM.State.values().length];
+
+    Counters() {
+      for (int i = 0; i < inState.length; ++i) {
+        inState[i] = new LongAdder();
+      }
+    }
+
+    @Override
+    public long getDiscovered() {
+      return discovered.sum();
+    }
+
+    @Override
+    public Map<String, Long> getInState() {
+      final ImmutableMap.Builder<String, Long> bld = ImmutableMap.builder();
+      for (ImportFSM.State state : ImportFSM.State.values()) {
+        bld.put(state.toString(), inState[state.ordinal()].sum());
+      }
+
+      return bld.build();
+    }
+
+    @Override
+    public long getSucceeded() {
+      return succeeded.sum();
+    }
+
+    @Override
+    public long getFailed() {
+      return failed.sum();
+    }
+
+    @Override
+    public long getBytesFetched() {
+      return bytesFetched.sum();
+    }
+  }
+
+  private final Counters total = new Counters();
+  private final ConcurrentMap<String, Counters> repositories = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, IntSupplier> queues = new ConcurrentHashMap<>();
+
+  private volatile Optional<MBeanServer> server = Optional.empty();
+
+  private Counters counters(final Repository repository) {
+    return repositories.computeIfAbsent(repository.getName(), name -> {
+      final Counters counters = new Counters();
+      server.ifPresent(s -> register(s, repositoryName(name), counters));
+
+      return counters;
+    });
+  }
+
+  /**
+   * Records a newly discovered entity, it starts in {@link ImportFSM.State#Ready}.
+   *
+   * @param repository {@link Repository} of the entity
+   */
+  public void discovered(final Repository repository) {
+    final Counters counters = counters(repository);
+
+    for (Counters c : new Counters[] { counters, total }) {
+      c.discovered.increment();
+      c.inState[ImportFSM.State.Ready.ordinal()].increment();
+    }
+  }
+
+  /**
+   * Records an {@link ImportFSM} moving from {@code from} to its current state.
+   *
+   * @param fsm {@link ImportFSM} that ran a state
+   * @param from State before it ran
+   */
+  public void moved(final ImportFSM fsm, final ImportFSM.State from) {
+    final ImportFSM.State to = fsm.getState();
+    if (from == to) {
+      return;
+    }
+
+    final Counters counters = counters(fsm.getRepository());
+    for (Counters c : new Counters[] { counters, total }) {
+      c.inState[from.ordinal()].decrement();
+      c.inState[to.ordinal()].increment();
+    }
+  }
+
+  /**
+   * Records a completed {@link ImportFSM}, it is no longer counted in any state.
+   *
+   * @param fsm {@link ImportFSM} that stopped running
+   * @param result The result it was reduced to
+   */
+  public void completed(final ImportFSM fsm, final ImportResult result) {
+    final Counters counters = counters(fsm.getRepository());
+    for (Counters c : new Counters[] { counters, total }) {
+      c.inState[fsm.getState().ordinal()].decrement();
+
+      (result.isSuccessful() ? c.succeeded : c.failed).increment();
+      c.bytesFetched.add(Math.max(0, result.getInputSize()));
+    }
+  }
+
+  /**
+   * Reports the depth of a queue until it is {@link #removeQueue(String) removed}.
+   *
+   * @param name Name of the queue
+   * @param depth Supplies the number of items waiting in the queue, must be thread-safe
+   */
+  public void addQueue(final String name, final IntSupplier depth) {
+    queues.put(checkNotNull(name), checkNotNull(depth));
+  }
+
+  public void removeQueue(final String name) {
+    queues.remove(name);
+  }
+
+  @Override
+  public long getDiscovered() {
+    return total.getDiscovered();
+  }
+
+  @Override
+  public Map<String, Long> getInState() {
+    return total.getInState();
+  }
+
+  @Override
+  public long getSucceeded() {
+    return total.getSucceeded();
+  }
+
+  @Override
+  public long getFailed() {
+    return total.getFailed();
+  }
+
+  @Override
+  public long getBytesFetched() {
+    return total.getBytesFetched();
+  }
+
+  @Override
+  public Map<String, Integer> getQueueDepths() {
+    final ImmutableSortedMap.Builder<String, Integer> bld = ImmutableSortedMap.naturalOrder();
+    queues.forEach((name, depth) -> bld.put(name, depth.getAsInt()));
+
+    return bld.build();
+  }
+
+  /**
+   * Gets the counters of a single {@link Repository}.
+   *
+   * @param name Name of the {@link Repository}
+   * @return {@link Optional#empty()} if no entity of the {@link Repository} was discovered.
+   */
+  public Optional<RepositoryMetricsMXBean> getRepository(final String name) {
+    return Optional.ofNullable(repositories.get(name));
+  }
+
+  private static ObjectName repositoryName(final String name) {
+    try {
+      return new ObjectName(DOMAIN + ":type=RepositoryMetrics,name=" + ObjectName.quote(name));
+    } catch (JMException jme) {
+      throw new IllegalArgumentException(jme);
+    }
+  }
+
+  private static ObjectName totalName() {
+    try {
+      return new ObjectName(DOMAIN + ":type=ImportMetrics");
+    } catch (JMException jme) {
+      throw new IllegalStateException(jme);
+    }
+  }
+
+  private static void register(final MBeanServer s, final ObjectName name, final Object bean) {
+    try {
+      s.registerMBean(bean, name);
+    } catch (JMException jme) {
+      log.warning("Could not register " + name + ": " + jme.getMessage());
+    }
+  }
+
+  private static void unregister(final MBeanServer s, final ObjectName name) {
+    try {
+      if (s.isRegistered(name)) {
+        s.unregisterMBean(name);
+      }
+    } catch (JMException jme) {
+      log.warning("Could not unregister " + name + ": " + jme.getMessage());
+    }
+  }
+
+  /**
+   * Registers the metrics with the platform {@link MBeanServer}, including every {@link Repository} discovered
+   * afterwards. Failures to register are logged, not thrown, as metrics are not required for an import run.
+   */
+  public synchronized void register() {
+    if (server.isPresent()) {
+      return;
+    }
+
+    final MBeanServer s = ManagementFactory.getPlatformMBeanServer();
+    server = Optional.of(s);
+
+    register(s, totalName(), this);
+    repositories.forEach((name, counters) -> register(s, repositoryName(name), counters));
+  }
+
+  /**
+   * Removes every registered MBean.
+   */
+  public synchronized void unregister() {
+    server.ifPresent(s -> {
+      unregister(s, totalName());
+      repositories.keySet().forEach(name -> unregister(s, repositoryName(name)));
+    });
+
+    server = Optional.empty();
+  }
+
+  /**
+   * Escapes a label value for the Prometheus text format.
+   */
+  private static String label(final String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  private void writeCounter(final Writer out, final String metric, final String help,
+      final SortedMap<String, Counters> repos, final ToLongFunction<Counters> value) throws IOException {
+    out.write("# HELP " + metric + " " + help + "\n");
+    out.write("# TYPE " + metric + " counter\n");
+    for (Map.Entry<String, Counters> e : repos.entrySet()) {
+      out.write(metric + "{repository=\"" + label(e.getKey()) + "\"} " + value.applyAsLong(e.getValue()) + "\n");
+    }
+  }
+
+  /**
+   * Writes a snapshot of the metrics in the Prometheus text exposition format.
+   *
+   * @param out Destination, it is not flushed or closed
+   * @throws IOException if writing to {@code out} fails
+   *
+   * @since Oct 18, 2026
+   */
+  public void writePrometheus(final Writer out) throws IOException {
+    final SortedMap<String, Counters> repos = new TreeMap<>(repositories);
+
+    writeCounter(out, "umpr_entities_discovered_total", "Entities discovered.", repos, Counters::getDiscovered);
+    writeCounter(out, "umpr_imports_succeeded_total", "Imports completed successfully.", repos,
+        Counters::getSucceeded);
+    writeCounter(out, "umpr_imports_failed_total", "Imports completed with a failure.", repos, Counters::getFailed);
+    writeCounter(out, "umpr_fetched_bytes_total", "Bytes of content fetched.", repos, Counters::getBytesFetched);
+
+    out.write("# HELP umpr_entities_in_state Entities currently in each state.\n");
+    out.write("# TYPE umpr_entities_in_state gauge\n");
+    for (Map.Entry<String, Counters> e : repos.entrySet()) {
+      for (Map.Entry<String, Long> s : e.getValue().getInState().entrySet()) {
+        out.write("umpr_entities_in_state{repository=\"" + label(e.getKey()) + "\",state=\"" + s.getKey() + "\"} "
+            + s.getValue() + "\n");
+      }
+    }
+
+    out.write("# HELP umpr_queue_depth Entities waiting in each queue.\n");
+    out.write("# TYPE umpr_queue_depth gauge\n");
+    for (Map.Entry<String, Integer> e : getQueueDepths().entrySet()) {
+      out.write("umpr_queue_depth{queue=\"" + label(e.getKey()) + "\"} " + e.getValue() + "\n");
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package cruise.umple.umpr.core;
+
+import java.util.Map;
+
+/**
+ * Live counters of an import run over all repositories, registered by {@link ImportMetrics}.
+ *
+ * @since Oct 18, 2026
+ */
+public interface ImportMetricsMXBean extends RepositoryMetricsMXBean {
+
+  /**
+   * @return Number of {@link ImportFSM} instances waiting in each queue of the {@link ImportEngine}, keyed by the
+   *         queue name.
+   */
+  Map<String, Integer> getQueueDepths();
+}
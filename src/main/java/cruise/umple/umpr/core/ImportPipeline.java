@@ -0,0 +1,271 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import cruise.umple.umpr.core.entities.ImportEntity;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Runs {@link ImportFSM} instances as a pipeline: the {@link ImportFSM.State#Fetch}, {@link ImportFSM.State#Import}
+ * and {@link ImportFSM.State#Model} states are separate stages connected by bounded queues. Each stage is worked on by
+ * its own set of workers, thus downloading entity N+k overlaps with modelling entity N.
+ *
+ * <p>
+ * When a queue is full, the stage feeding it blocks. This back-pressure reaches the calling thread, so the number of
+ * {@link ImportFSM} instances alive at once is bounded by the queue capacities and worker counts rather than by the
+ * number of entities.
+ * </p>
+ *
+ * <p>
+ * Every {@link ImportFSM} leaving the pipeline is passed to a completion function on the worker that finished it,
+ * only the {@link ImportResult} it returns is kept. An {@link ImportFSM} stuck in a stage can be
+ * {@link #abandon(ImportFSM, ImportFSM.State, ImportResult) abandoned}, the stage continues on a new worker.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+final class ImportPipeline {
+
+  private final Logger logger = Logger.getLogger(ImportPipeline.class.getName());
+
+  /**
+   * A single stage of the pipeline. Workers take from {@link #in} until they receive an end marker.
+   */
+  private final class Stage {
+
+    private final String name;
+    private final Executor executor;
+    private final int workers;
+    private final Predicate<ImportFSM> action;
+    private final BlockingQueue<Optional<ImportFSM>> in;
+
+    private final AtomicInteger running;
+
+    private Optional<Stage> next = Optional.empty();
+
+    Stage(final String name, final Executor executor, final int workers, final Predicate<ImportFSM> action) {
+      checkArgument(workers > 0, "%s workers must be positive: %s", name, workers);
+
+      this.name = name;
+      this.executor = checkNotNull(executor);
+      this.workers = workers;
+      this.action = checkNotNull(action);
+      this.in = new ArrayBlockingQueue<>(capacity);
+      this.running = new AtomicInteger(workers);
+    }
+
+    void start() {
+      for (int i = 0; i < workers; ++i) {
+        executor.execute(this::work);
+      }
+    }
+
+    /**
+     * Signals that nothing else will be queued, each worker receives one end marker.
+     */
+    void finish() throws InterruptedException {
+      for (int i = 0; i < workers; ++i) {
+        in.put(Optional.empty());
+      }
+    }
+
+    private void work() {
+      boolean replaced = false;
+      try {
+        Optional<ImportFSM> item;
+        while ((item = in.take()).isPresent()) {
+          final ImportFSM fsm = item.get();
+
+          boolean advanced;
+          try {
+            advanced = action.test(fsm);
+          } catch (Throwable t) {
+            logger.warning("Stage " + name + " failed unexpectedly for " + fsm.getOutputPath() + ":\n"
+                + Throwables.getStackTraceAsString(t));
+            fsm.setFailure(Optional.of(t));
+            advanced = false;
+          }
+
+          if (abandoned.remove(fsm)) {
+            // its result was already kept and another worker took over, this worker is no longer counted
+            fsm.release();
+            replaced = true;
+            return;
+          }
+
+          if (advanced && next.isPresent()) {
+            next.get().in.put(item);
+          } else {
+            results.add(completion.apply(fsm));
+          }
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        logger.warning("Stage " + name + " was interrupted.");
+      } finally {
+        if (!replaced && running.decrementAndGet() == 0) {
+          onStageFinished(this);
+        }
+      }
+    }
+  }
+
+  private final int capacity;
+
+  private final Stage fetch;
+  private final Stage imports;
+  private final Stage model;
+
+  private final Function<ImportFSM, ImportResult> completion;
+
+  private final ConcurrentLinkedQueue<ImportResult> results = new ConcurrentLinkedQueue<>();
+  private final Set<ImportFSM> abandoned = ConcurrentHashMap.newKeySet();
+  private final CountDownLatch done = new CountDownLatch(1);
+
+  /**
+   * Create a new pipeline, a pipeline may only be {@link #run(Stream, Function) run} once.
+   *
+   * @param capacity Capacity of each of the queues between stages
+   * @param fetchExecutor Executor to run fetch workers on, must be able to run {@code fetchWorkers} at once
+   * @param fetchWorkers Number of fetch workers
+   * @param fetchAction Runs the fetch state, returns {@code true} if the {@link ImportFSM} should be imported
+   * @param advanceAction Runs the import and model states, returns {@code true} if the {@link ImportFSM} should 
+   *    continue to the next stage
+   * @param importExecutor Executor to run import workers on, must be able to run {@code importWorkers} at once
+   * @param importWorkers Number of import workers
+   * @param modelExecutor Executor to run model workers on, must be able to run {@code modelWorkers} at once
+   * @param modelWorkers Number of model workers
+   * @param completion Reduces an {@link ImportFSM} that left the pipeline to its result, must not throw
+   */
+  ImportPipeline(final int capacity,
+      final Executor fetchExecutor, final int fetchWorkers, final Predicate<ImportFSM> fetchAction,
+      final Predicate<ImportFSM> advanceAction,
+      final Executor importExecutor, final int importWorkers,
+      final Executor modelExecutor, final int modelWorkers,
+      final Function<ImportFSM, ImportResult> completion) {
+    checkArgument(capacity > 0, "capacity must be positive: %s", capacity);
+
+    this.capacity = capacity;
+    this.completion = checkNotNull(completion);
+
+    this.fetch = new Stage("Fetch", fetchExecutor, fetchWorkers, fetchAction);
+    this.imports = new Stage("Import", importExecutor, importWorkers, advanceAction);
+    this.model = new Stage("Model", modelExecutor, modelWorkers, advanceAction);
+
+    this.fetch.next = Optional.of(this.imports);
+    this.imports.next = Optional.of(this.model);
+  }
+
+  /**
+   * Gets the number of {@link ImportFSM} instances waiting for a stage.
+   *
+   * @param state {@link ImportFSM.State#Fetch}, {@link ImportFSM.State#Import} or {@link ImportFSM.State#Model}
+   * @return Number of instances queued, while finishing this includes the end markers.
+   */
+  int queueDepth(final ImportFSM.State state) {
+    return stage(state).in.size();
+  }
+
+  private Stage stage(final ImportFSM.State state) {
+    switch (state) {
+    case Fetch:
+      return fetch;
+    case Import:
+      return imports;
+    case Model:
+      return model;
+    default:
+      throw new IllegalArgumentException("No stage for " + state);
+    }
+  }
+
+  /**
+   * Abandons an {@link ImportFSM} whose worker is stuck in {@code state}: {@code result} is kept in its place and a
+   * new worker is started for the stage. Once the stuck worker returns, it drops the {@link ImportFSM} and stops. The
+   * executor of the stage must be able to run the extra worker.
+   *
+   * @param fsm {@link ImportFSM} still running {@code state}
+   * @param state State the worker is stuck in
+   * @param result Result to keep for {@code fsm}
+   */
+  void abandon(final ImportFSM fsm, final ImportFSM.State state, final ImportResult result) {
+    final Stage stage = stage(state);
+
+    abandoned.add(checkNotNull(fsm));
+    results.add(checkNotNull(result));
+    stage.executor.execute(stage::work);
+  }
+
+  private void onStageFinished(final Stage stage) {
+    logger.fine("Stage " + stage.name + " finished.");
+
+    if (stage.next.isPresent()) {
+      try {
+        stage.next.get().finish();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    } else {
+      done.countDown();
+    }
+  }
+
+  /**
+   * Runs every {@link ImportEntity} through the pipeline. Entities are consumed on the calling thread, this call
+   * blocks until every entity has left the pipeline.
+   *
+   * @param entities Entities to import
+   * @param outputPaths Function computing the output path of an entity
+   * @return Non-{@code null}, possibly empty {@link List} of results, in no particular order.
+   */
+  List<ImportResult> run(final Stream<ImportEntity> entities, final Function<ImportEntity, Path> outputPaths) {
+    checkNotNull(entities);
+    checkNotNull(outputPaths);
+
+    fetch.start();
+    imports.start();
+    model.start();
+
+    try {
+      entities.sequential().forEach(entity -> {
+        final ImportFSM fsm = new ImportFSM(outputPaths.apply(entity), entity.getImportType(), entity,
+            entity.getRepository(), entity.getAttribLoc());
+
+        try {
+          fetch.in.put(Optional.of(fsm));
+        } catch (InterruptedException ie) {
+          throw Throwables.propagate(ie);
+        }
+      });
+    } finally {
+      try {
+        fetch.finish();
+        done.await();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw Throwables.propagate(ie);
+      }
+    }
+
+    return ImmutableList.copyOf(results);
+  }
+}
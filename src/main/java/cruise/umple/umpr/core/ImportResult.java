@@ -0,0 +1,193 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.consistent.ImportFile;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Maps;
+
+/**
+ * Compact, immutable result of running an {@link ImportFSM}. Unlike an {@link ImportFSM}, it holds none of the fetched
+ * or generated content and no {@link Throwable}, only a summary of the failure. Results are cheap to keep for every
+ * entity of a run.
+ *
+ * @since Oct 18, 2026
+ */
+public final class ImportResult {
+
+  private static final Logger log = Logger.getLogger(ImportResult.class.getName());
+
+  private final Repository repository;
+  private final Path outputPath;
+  private final UmpleImportType importType;
+  private final Optional<ImportAttrib> attribLoc;
+  private final ImportFSM.State state;
+  private final Optional<String> failure;
+  private final Optional<String> inputHash;
+  private final long inputSize;
+  private final long umpleSize;
+  private final boolean reused;
+  private final Map<ImportFSM.State, StageMetrics> stageMetrics;
+
+  private ImportResult(final ImportFSM fsm, final ImportFSM.State state, final Optional<String> failure) {
+    this.repository = fsm.getRepository();
+    this.outputPath = fsm.getOutputPath();
+    this.importType = fsm.getImportType();
+    this.attribLoc = fsm.getAttribLoc();
+    this.state = state;
+    this.failure = failure;
+    this.inputHash = fsm.getInputHash();
+    this.inputSize = fsm.getInputSize();
+    this.umpleSize = fsm.getUmpleSize();
+    this.reused = fsm.getReusedFrom().isPresent();
+    this.stageMetrics = Maps.immutableEnumMap(fsm.getStageMetrics());
+  }
+
+  /**
+   * Reduces an {@link ImportFSM} to its result. If the {@link ImportFSM} reused the result of a previous run, the
+   * previous state and failure are used.
+   *
+   * @param fsm Non-{@code null} state machine that is no longer running
+   * @return New non-{@code null} instance.
+   *
+   * @since Oct 18, 2026
+   */
+  public static ImportResult of(final ImportFSM fsm) {
+    checkNotNull(fsm);
+
+    if (fsm.getReusedFrom().isPresent()) {
+      final ImportFile previous = fsm.getReusedFrom().get();
+      return new ImportResult(fsm, previous.getLastState(),
+          previous.isSuccessful() ? Optional.empty() : Optional.of(previous.getMessage()));
+    }
+
+    return new ImportResult(fsm, fsm.getState(), fsm.getFailure().map(ImportResult::summarize));
+  }
+
+  /**
+   * Reduces an {@link ImportFSM} that is still running a state to a failed result, e.g. if the state was abandoned.
+   *
+   * @param fsm Non-{@code null} state machine running {@code state}
+   * @param state State that failed
+   * @param failure Why the state failed
+   * @return New non-{@code null} instance.
+   *
+   * @since Oct 18, 2026
+   */
+  public static ImportResult failed(final ImportFSM fsm, final ImportFSM.State state, final Throwable failure) {
+    checkNotNull(fsm);
+    checkNotNull(state);
+
+    return new ImportResult(fsm, state, Optional.of(summarize(failure)));
+  }
+
+  /**
+   * Summarizes a failure as the message of its root cause, or the root cause's stack trace if it has no message.
+   *
+   * @param ex Failure to summarize
+   * @return Non-{@code null}, non-empty message.
+   *
+   * @since Oct 18, 2026
+   */
+  public static String summarize(final Throwable ex) {
+    final Throwable root = Throwables.getRootCause(checkNotNull(ex));
+
+    String message = root.getMessage();
+    if (Strings.isNullOrEmpty(message)) {
+      message = Throwables.getStackTraceAsString(root);
+      log.info("Error importing model: " + Throwables.getStackTraceAsString(ex));
+    }
+
+    return message;
+  }
+
+  public Repository getRepository() {
+    return repository;
+  }
+
+  public Path getOutputPath() {
+    return outputPath;
+  }
+
+  public UmpleImportType getImportType() {
+    return importType;
+  }
+
+  public Optional<ImportAttrib> getAttribLoc() {
+    return attribLoc;
+  }
+
+  /**
+   * @return The last state the {@link ImportFSM} reached.
+   */
+  public ImportFSM.State getState() {
+    return state;
+  }
+
+  /**
+   * @return Summary of the failure, {@link Optional#empty()} if the import was successful.
+   */
+  public Optional<String> getFailure() {
+    return failure;
+  }
+
+  public boolean isSuccessful() {
+    return !failure.isPresent();
+  }
+
+  /**
+   * @return SHA-256 hash of the fetched content, {@link Optional#empty()} if it was never fetched.
+   */
+  public Optional<String> getInputHash() {
+    return inputHash;
+  }
+
+  /**
+   * @return Number of bytes fetched, {@code -1} if nothing was fetched.
+   */
+  public long getInputSize() {
+    return inputSize;
+  }
+
+  /**
+   * @return Number of bytes of Umple generated, {@code -1} if nothing was generated.
+   */
+  public long getUmpleSize() {
+    return umpleSize;
+  }
+
+  /**
+   * @return {@code true} if the result of a previous run was reused.
+   */
+  public boolean isReused() {
+    return reused;
+  }
+
+  /**
+   * @return Non-{@code null} {@link StageMetrics} of each state that ran, a reused result only ran
+   *         {@link ImportFSM.State#Fetch}.
+   */
+  public Map<ImportFSM.State, StageMetrics> getStageMetrics() {
+    return stageMetrics;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("repository", repository.getName())
+        .add("outputPath", outputPath)
+        .add("state", state)
+        .add("failure", failure)
+        .add("reused", reused)
+        .toString();
+  }
+}
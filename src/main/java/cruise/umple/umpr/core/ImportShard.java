@@ -0,0 +1,131 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+
+import cruise.umple.umpr.core.entities.ImportEntity;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * One of {@code count} disjoint shares of the {@link ImportEntity} instances of a run, thus a run can be split across
+ * several machines that each run one shard. An entity belongs to the shard chosen by a hash of its repository name and
+ * path, the assignment only depends on those and {@code count}, thus every node agrees on it without coordination and
+ * an entity stays in the same shard across runs, e.g. for {@link ConsoleMain.Config#incremental}.
+ *
+ * <p>
+ * The shard is chosen with {@link Hashing#consistentHash(com.google.common.hash.HashCode, int)}, when {@code count}
+ * changes only the entities that must move to another shard change shards.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public final class ImportShard implements Predicate<ImportEntity> {
+
+  /**
+   * The only shard of an unsharded run, it contains every entity.
+   */
+  public static final ImportShard ALL = new ImportShard(0, 1);
+
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private final int index;
+  private final int count;
+
+  private ImportShard(final int index, final int count) {
+    this.index = index;
+    this.count = count;
+  }
+
+  /**
+   * Creates a shard.
+   *
+   * @param index Index of the shard, from {@code 0} to {@code count - 1}
+   * @param count Number of shards
+   * @return Non-{@code null} shard.
+   */
+  public static ImportShard of(final int index, final int count) {
+    checkArgument(count > 0, "count must be positive: %s", count);
+    checkArgument(index >= 0 && index < count, "index must be in [0, %s): %s", count, index);
+
+    return new ImportShard(index, count);
+  }
+
+  /**
+   * Parses a shard written as {@code index/count}, e.g. {@code 0/4} is the first of four shards.
+   *
+   * @param value Shard to parse
+   * @return Non-{@code null} shard.
+   * @throws IllegalArgumentException if {@code value} is not a valid shard.
+   */
+  public static ImportShard parse(final String value) {
+    final List<String> parts = Splitter.on('/').trimResults().splitToList(checkNotNull(value));
+    checkArgument(parts.size() == 2, "Shard must be written as index/count: %s", value);
+
+    try {
+      return of(Integer.parseInt(parts.get(0)), Integer.parseInt(parts.get(1)));
+    } catch (NumberFormatException nfe) {
+      throw new IllegalArgumentException("Shard must be written as index/count: " + value, nfe);
+    }
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the shard an entity belongs to.
+   *
+   * @param repository Name of the entity's {@link Repository}
+   * @param path Path of the entity within its repository
+   * @param count Number of shards
+   * @return Index of the shard, from {@code 0} to {@code count - 1}.
+   */
+  public static int shardOf(final String repository, final Path path, final int count) {
+    checkArgument(count > 0, "count must be positive: %s", count);
+
+    // the path is joined with '/' rather than the platform separator, thus every platform agrees
+    final String key = checkNotNull(repository) + '\0' + Joiner.on('/').join(checkNotNull(path));
+    return Hashing.consistentHash(HASH.hashString(key, Charsets.UTF_8), count);
+  }
+
+  /**
+   * @return {@code true} if {@code entity} belongs to this shard.
+   */
+  @Override
+  public boolean test(final ImportEntity entity) {
+    return count == 1 || shardOf(entity.getRepository().getName(), entity.getPath(), count) == index;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (!(obj instanceof ImportShard)) {
+      return false;
+    }
+
+    final ImportShard other = (ImportShard) obj;
+    return index == other.index && count == other.count;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * index + count;
+  }
+
+  @Override
+  public String toString() {
+    return index + "/" + count;
+  }
+}
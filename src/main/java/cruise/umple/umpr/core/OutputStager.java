@@ -0,0 +1,392 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Stages output inside its destination folder and moves it into place one top-level entry (i.e. one
+ * {@link Repository}) at a time. The staging folder is a hidden folder in the destination, thus it is on the same
+ * file system and each entry is moved with a rename instead of being copied file by file. A {@link Repository} folder
+ * in the destination is only replaced once its staged replacement is complete, readers never see it half-written.
+ *
+ * <p>
+ * When merging, files already in a destination folder that were not staged are moved into the staged folder before it
+ * replaces the destination, thus they are kept. Paths in the destination that are ignored are never replaced.
+ * </p>
+ *
+ * <p>
+ * Alternatively the whole destination is {@link #sync() synchronized} with the staged output, only the files whose
+ * content changed are replaced and only stale files are deleted.
+ * </p>
+ *
+ * <p>
+ * Anything still staged when the stager is {@link #close() closed} is removed, as are the staging folders left behind
+ * by runs that did not finish.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public final class OutputStager implements AutoCloseable {
+
+  /**
+   * Prefix of the staging folder name, the leading dot hides it from the other output.
+   */
+  static final String STAGING_PREFIX = ".umpr.staging-";
+
+  /**
+   * Prefix of a replaced destination folder while it is being removed.
+   */
+  private static final String REPLACED_PREFIX = ".replaced-";
+
+  private final Logger log = Logger.getLogger(OutputStager.class.getName());
+
+  private final Path destination;
+  private final Set<Path> ignorePaths;
+  private final Path staging;
+
+  /**
+   * Creates a new staging folder inside {@code destination}, creating {@code destination} if it does not exist.
+   *
+   * @param destination Folder the output is moved to
+   * @param ignorePaths Paths inside {@code destination} that are never replaced
+   * @throws IOException if the staging folder can not be created
+   *
+   * @since Oct 18, 2026
+   */
+  public OutputStager(final Path destination, final Set<Path> ignorePaths) throws IOException {
+    this.destination = checkNotNull(destination).toAbsolutePath();
+    this.ignorePaths = ImmutableSet.copyOf(ignorePaths.stream().map(Path::toAbsolutePath).iterator());
+
+    Files.createDirectories(this.destination);
+    removeAbandoned();
+
+    this.staging = Files.createTempDirectory(this.destination, STAGING_PREFIX);
+  }
+
+  /**
+   * Removes the staging folders of previous runs that did not finish.
+   */
+  private void removeAbandoned() throws IOException {
+    try (DirectoryStream<Path> abandoned = Files.newDirectoryStream(destination, STAGING_PREFIX + "*")) {
+      for (Path dir : abandoned) {
+        log.info("Removing abandoned staging folder: " + dir);
+        FileUtils.deleteDirectory(dir.toFile());
+      }
+    }
+  }
+
+  /**
+   * Gets the folder to write output to, its layout mirrors the destination.
+   *
+   * @return Non-{@code null} existing folder.
+   */
+  public Path getStagingDir() {
+    return staging;
+  }
+
+  /**
+   * Moves every staged top-level entry into the destination.
+   *
+   * @param merge If {@code true} files in the destination that were not staged are kept, otherwise a staged folder
+   *    replaces the destination folder entirely
+   * @return Names of the entries moved, in the order they were moved.
+   * @throws IOException if moving an entry fails, the entries moved before it stay in place
+   */
+  public List<String> commit(final boolean merge) throws IOException {
+    final List<String> names;
+    try (Stream<Path> entries = Files.list(staging)) {
+      names = entries.map(p -> p.getFileName().toString())
+          .filter(name -> !name.startsWith("."))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+
+    final ImmutableList.Builder<String> committed = ImmutableList.builder();
+    for (String name : names) {
+      if (commit(name, merge)) {
+        committed.add(name);
+      }
+    }
+
+    return committed.build();
+  }
+
+  /**
+   * Moves a single staged top-level entry into the destination.
+   *
+   * @param name Name of the entry, e.g. a {@link Repository#getName() repository name}
+   * @param merge If {@code true} files in the destination that were not staged are kept
+   * @return {@code false} if nothing was staged under {@code name} or its destination is ignored.
+   * @throws IOException if moving the entry fails, the destination is left unchanged
+   */
+  public boolean commit(final String name, final boolean merge) throws IOException {
+    checkArgument(!name.startsWith("."), "Hidden entries are not committed: %s", name);
+
+    final Path src = staging.resolve(name);
+    final Path dest = destination.resolve(name);
+    if (!Files.exists(src)) {
+      return false;
+    }
+
+    if (ignorePaths.contains(dest)) {
+      log.fine("Not replacing ignored path: " + dest);
+      FileUtils.forceDelete(src.toFile());
+      return false;
+    }
+
+    if (!Files.isDirectory(src) || !Files.isDirectory(dest)) {
+      if (Files.isDirectory(dest)) {
+        FileUtils.deleteDirectory(dest.toFile());
+      }
+
+      Files.move(src, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      return true;
+    }
+
+    carryOver(dest, src, merge);
+
+    // a non-empty folder can not be replaced in one rename, move the old one aside first
+    final Path replaced = staging.resolve(REPLACED_PREFIX + name);
+    Files.move(dest, replaced, StandardCopyOption.ATOMIC_MOVE);
+    try {
+      Files.move(src, dest, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ioe) {
+      Files.move(replaced, dest, StandardCopyOption.ATOMIC_MOVE);
+      throw ioe;
+    }
+
+    FileUtils.deleteDirectory(replaced.toFile());
+    return true;
+  }
+
+  /**
+   * Moves the files in {@code dest} that must be kept into {@code src}: ignored paths always, other files only when
+   * merging and they were not staged.
+   */
+  private void carryOver(final Path dest, final Path src, final boolean merge) throws IOException {
+    Files.walkFileTree(dest, new SimpleFileVisitor<Path>() {
+
+      private Path staged(final Path path) {
+        return src.resolve(dest.relativize(path).toString());
+      }
+
+      @Override
+      public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+        if (!dir.equals(dest) && ignorePaths.contains(dir)) {
+          final Path target = staged(dir);
+          FileUtils.deleteQuietly(target.toFile());
+          Files.createDirectories(target.getParent());
+          Files.move(dir, target);
+
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+        final Path target = staged(file);
+        final boolean ignored = ignorePaths.contains(file);
+        if (ignored || (merge && !Files.exists(target))) {
+          Files.createDirectories(target.getParent());
+          Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  /**
+   * Counts of the files changed by a {@link OutputStager#sync()}.
+   */
+  public static final class SyncReport {
+
+    private int added;
+    private int updated;
+    private int unchanged;
+    private int deleted;
+
+    private SyncReport() { }
+
+    /**
+     * @return Number of staged files that did not exist in the destination.
+     */
+    public int getAdded() {
+      return added;
+    }
+
+    /**
+     * @return Number of destination files replaced as their content changed.
+     */
+    public int getUpdated() {
+      return updated;
+    }
+
+    /**
+     * @return Number of destination files left untouched as their content is unchanged.
+     */
+    public int getUnchanged() {
+      return unchanged;
+    }
+
+    /**
+     * @return Number of destination files deleted as nothing was staged in their place.
+     */
+    public int getDeleted() {
+      return deleted;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("added", added)
+          .add("updated", updated)
+          .add("unchanged", unchanged)
+          .add("deleted", deleted)
+          .toString();
+    }
+  }
+
+  /**
+   * Checks if a destination path or any of its parents inside the destination is ignored.
+   */
+  private boolean isIgnored(final Path path) {
+    for (Path p = path; p != null && p.startsWith(destination); p = p.getParent()) {
+      if (ignorePaths.contains(p)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean contentEquals(final Path a, final Path b) throws IOException {
+    return com.google.common.io.Files.asByteSource(a.toFile())
+        .contentEquals(com.google.common.io.Files.asByteSource(b.toFile()));
+  }
+
+  /**
+   * Makes the destination match the staged output while only touching the files that differ. A staged file replaces
+   * its destination file only if their sizes or contents differ, thus unchanged files keep their modification time.
+   * Destination files that were not staged are deleted, except hidden and ignored files, as are the folders left
+   * empty. This replaces the whole destination, not just the staged top-level entries.
+   *
+   * @return Non-{@code null} counts of the changes made.
+   * @throws IOException if reading or changing a file fails, the files synchronized before it stay changed
+   *
+   * @since Oct 18, 2026
+   */
+  public SyncReport sync() throws IOException {
+    final SyncReport report = new SyncReport();
+    final Set<Path> synced = new HashSet<>();
+
+    Files.walkFileTree(staging, new SimpleFileVisitor<Path>() {
+
+      @Override
+      public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+        return dir.getFileName().toString().startsWith(".") && !dir.equals(staging)
+            ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+        final Path dest = destination.resolve(staging.relativize(file).toString());
+        if (isIgnored(dest)) {
+          return FileVisitResult.CONTINUE;
+        }
+        synced.add(dest);
+
+        if (!Files.exists(dest)) {
+          Files.createDirectories(dest.getParent());
+          Files.move(file, dest, StandardCopyOption.ATOMIC_MOVE);
+          ++report.added;
+        } else if (Files.isRegularFile(dest) && Files.size(dest) == attrs.size()
+            && contentEquals(dest, file)) {
+          ++report.unchanged;
+        } else {
+          if (Files.isDirectory(dest)) {
+            FileUtils.deleteDirectory(dest.toFile());
+          }
+
+          Files.move(file, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+          ++report.updated;
+        }
+
+        return FileVisitResult.CONTINUE;
+      }
+    });
+
+    Files.walkFileTree(destination, new SimpleFileVisitor<Path>() {
+
+      @Override
+      public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+        if (dir.equals(destination)) {
+          return FileVisitResult.CONTINUE;
+        }
+
+        return (dir.equals(staging) || dir.toFile().isHidden() || ignorePaths.contains(dir))
+            ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+        if (!synced.contains(file) && !file.toFile().isHidden() && !ignorePaths.contains(file)) {
+          Files.delete(file);
+          ++report.deleted;
+        }
+
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult postVisitDirectory(final Path dir, final IOException e) throws IOException {
+        if (e != null) {
+          throw e;
+        }
+
+        if (!dir.equals(destination)) {
+          try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            if (!entries.iterator().hasNext()) {
+              Files.delete(dir);
+            }
+          }
+        }
+
+        return FileVisitResult.CONTINUE;
+      }
+    });
+
+    return report;
+  }
+
+  /**
+   * Removes the staging folder and anything not committed.
+   */
+  @Override
+  public void close() throws IOException {
+    FileUtils.deleteDirectory(staging.toFile());
+  }
+}
@@ -0,0 +1,89 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Periodically writes {@link ImportMetrics} to a file in the Prometheus text format, e.g. for the textfile collector
+ * of the node exporter. Each snapshot is written to a temporary file that then replaces the file, so a collector
+ * never reads a partial snapshot. A final snapshot is written when closed.
+ *
+ * @since Oct 18, 2026
+ */
+public final class PrometheusTextfile implements AutoCloseable {
+
+  private final Logger log = Logger.getLogger(PrometheusTextfile.class.getName());
+
+  private final ImportMetrics metrics;
+  private final Path file;
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Starts writing {@code metrics} to {@code file}.
+   *
+   * @param metrics Metrics to write
+   * @param file File to write to, its directory must exist
+   * @param interval Seconds between snapshots, must be positive
+   *
+   * @since Oct 18, 2026
+   */
+  public PrometheusTextfile(final ImportMetrics metrics, final Path file, final long interval) {
+    checkArgument(interval > 0, "interval must be positive: %s", interval);
+
+    this.metrics = checkNotNull(metrics);
+    this.file = checkNotNull(file).toAbsolutePath();
+
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("umpr-metrics-%d").setDaemon(true).build());
+    this.scheduler.scheduleWithFixedDelay(this::tryWrite, 0, interval, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Writes a snapshot now.
+   *
+   * @throws IOException if the file could not be written.
+   */
+  public synchronized void write() throws IOException {
+    final Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try (Writer out = Files.newBufferedWriter(tmp, Charsets.UTF_8)) {
+        metrics.writePrometheus(out);
+      }
+
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private void tryWrite() {
+    try {
+      write();
+    } catch (IOException | RuntimeException e) {
+      // keep writing later snapshots, the file may become writable again
+      log.warning("Could not write metrics to " + file + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Stops writing snapshots after writing a final one.
+   */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    tryWrite();
+  }
+}
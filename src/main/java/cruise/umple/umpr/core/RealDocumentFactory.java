@@ -2,9 +2,17 @@ package cruise.umple.umpr.core;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
 import java.util.Optional;
 import java.util.logging.Logger;
 
+import cruise.umple.umpr.core.util.FlightEvents;
+import cruise.umple.umpr.core.util.HttpArchive;
+import cruise.umple.umpr.core.util.Networks;
+
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
@@ -18,17 +26,56 @@ public class RealDocumentFactory implements DocumentFactory {
     @Inject
     private Logger logger;
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * If an {@link HttpArchive} is {@link Networks#setArchive(Optional) set}, the page is recorded to it or replayed
+     * from it.
+     * </p>
+     */
     @Override
     public Optional<Document> fromURL(String url) {
+        final FlightEvents.Load event = FlightEvents.beginLoad(url);
         try {
-            return Optional.of(Jsoup.connect(url).timeout(30 * 1000).get());
+            final Optional<HttpArchive> archive = Networks.getArchive();
+
+            final Document doc;
+            if (archive.isPresent() && archive.get().isReplaying()) {
+                doc = replay(archive.get(), url);
+            } else {
+                final Connection.Response response = Jsoup.connect(url).timeout(30 * 1000).execute();
+                doc = response.parse();
+
+                if (archive.isPresent()) {
+                    archive.get().put("GET", new URL(url), response.statusCode(), response.bodyAsBytes());
+                }
+            }
+            event.end(true);
+
+            return Optional.of(doc);
         } catch (IllegalArgumentException | IOException ioe) {
+            event.end(false);
             logger.warning("Could not load URL: " + url + "\nException: " + ioe.getMessage());
 
             return Optional.empty();
         }
     }
 
+    private static Document replay(final HttpArchive archive, final String url) throws IOException {
+        final Optional<HttpArchive.Exchange> exchange = archive.get("GET", new URL(url));
+        if (!exchange.isPresent()) {
+            throw new IOException("Not in HTTP archive");
+        } else if (exchange.get().getStatus() != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Recorded response " + exchange.get().getStatus());
+        }
+
+        // the charset is detected the same way as for a live response
+        try (InputStream in = exchange.get().getBody().openStream()) {
+            return Jsoup.parse(in, null, url);
+        }
+    }
+
     @Override
     public Optional<Document> fromFile(File file) {
         if (!file.exists()) {
@@ -46,7 +46,10 @@ public interface Repository {
     public DiagramType getDiagramType();
 
     /**
-     * Get a list of URL instances where the import files may be stored.
+     * Get a list of URL instances where the import files may be stored. The {@link Stream} should be lazy: entities 
+     * are created as they are consumed rather than collected up-front, thus importing starts with the first entity 
+     * found. The {@link Stream} may block while discovering, {@link RepositoryDiscovery} consumes it on its own 
+     * thread.
      *
      * @return Non-{@code null}, possibly empty {@link Stream} of {@link ImportEntity} instances
      */
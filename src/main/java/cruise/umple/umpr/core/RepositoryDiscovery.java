@@ -0,0 +1,159 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import cruise.umple.umpr.core.entities.ImportEntity;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Discovers the {@link ImportEntity} instances of many {@link Repository} instances concurrently. Each
+ * {@link Repository} is enumerated on its own thread into a shared bounded queue, the returned {@link Stream} yields
+ * entities as soon as any {@link Repository} finds them, thus imports start while the other repositories are still
+ * loading their indexes instead of after every previous {@link Repository} was enumerated.
+ *
+ * <p>
+ * The queue is bounded, a {@link Repository} that is discovered faster than its entities are consumed waits for
+ * space. A {@link Repository} that fails to discover is logged and skipped, its entities discovered before the failure
+ * are kept; an {@link Error} is not caught, but still ends the {@link Repository}. The order of the entities is not
+ * defined. {@link #close() Closing} stops any discovery still running, e.g. after a limited number of entities were
+ * consumed.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public final class RepositoryDiscovery implements AutoCloseable {
+
+  /**
+   * Default number of discovered entities waiting to be consumed.
+   */
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private final Logger log = Logger.getLogger(RepositoryDiscovery.class.getName());
+
+  private final int capacity;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat("umpr-discover-%d").setDaemon(true).build());
+
+  /**
+   * Creates a new instance.
+   *
+   * @param capacity Number of discovered entities that may wait to be consumed, must be positive
+   */
+  public RepositoryDiscovery(final int capacity) {
+    checkArgument(capacity > 0, "capacity must be positive: %s", capacity);
+
+    this.capacity = capacity;
+  }
+
+  /**
+   * Starts discovering every {@link Repository} concurrently.
+   *
+   * @param repositories Repositories to discover
+   * @param discoverer Enumerates a {@link Repository}, e.g. {@link Repository#getImports()}, it is called on a
+   *    discovery thread
+   * @return Non-{@code null} {@link Stream} of all of the discovered entities, it must be consumed on one thread.
+   */
+  public Stream<ImportEntity> discover(final Collection<Repository> repositories,
+      final Function<? super Repository, Stream<ImportEntity>> discoverer) {
+    checkNotNull(repositories);
+    checkNotNull(discoverer);
+
+    // Optional.empty() marks a repository that finished
+    final BlockingQueue<Optional<ImportEntity>> queue = new ArrayBlockingQueue<>(capacity);
+
+    for (Repository repository : repositories) {
+      executor.execute(() -> {
+        try {
+          log.config("Loading Repository: " + repository.getName());
+          discoverer.apply(repository).forEachOrdered(entity -> put(queue, Optional.of(entity)));
+        } catch (RuntimeException re) {
+          if (!Thread.currentThread().isInterrupted()) {
+            log.warning("Failed to discover " + repository.getName() + ":\n"
+                + Throwables.getStackTraceAsString(re));
+          }
+        } finally {
+          // also after an Error, otherwise the stream waits forever; once closed nobody is waiting
+          if (!Thread.currentThread().isInterrupted()) {
+            put(queue, Optional.empty());
+          }
+        }
+      });
+    }
+
+    return StreamSupport.stream(new QueueSpliterator(queue, repositories.size()), false);
+  }
+
+  private static void put(final BlockingQueue<Optional<ImportEntity>> queue, final Optional<ImportEntity> item) {
+    try {
+      queue.put(item);
+    } catch (InterruptedException ie) {
+      // discovery was closed
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Discovery was closed.", ie);
+    }
+  }
+
+  /**
+   * Takes entities from the queue until every {@link Repository} finished.
+   */
+  private static final class QueueSpliterator extends Spliterators.AbstractSpliterator<ImportEntity> {
+
+    private final BlockingQueue<Optional<ImportEntity>> queue;
+    private int running;
+
+    QueueSpliterator(final BlockingQueue<Optional<ImportEntity>> queue, final int running) {
+      super(Long.MAX_VALUE, Spliterator.NONNULL);
+
+      this.queue = queue;
+      this.running = running;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super ImportEntity> action) {
+      while (running > 0) {
+        final Optional<ImportEntity> item;
+        try {
+          item = queue.take();
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          throw Throwables.propagate(ie);
+        }
+
+        if (item.isPresent()) {
+          action.accept(item.get());
+          return true;
+        }
+
+        --running;
+      }
+
+      return false;
+    }
+  }
+
+  /**
+   * Stops every discovery still running.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,37 @@
+package cruise.umple.umpr.core;
+
+import java.util.Map;
+
+/**
+ * Live counters of the imports of a single {@link Repository}, registered by {@link ImportMetrics}.
+ *
+ * @since Oct 18, 2026
+ */
+public interface RepositoryMetricsMXBean {
+
+  /**
+   * @return Number of entities discovered so far.
+   */
+  long getDiscovered();
+
+  /**
+   * @return Number of entities currently in each {@link ImportFSM.State}, keyed by the state name. Entities leave
+   *         this count once they complete.
+   */
+  Map<String, Long> getInState();
+
+  /**
+   * @return Number of completed imports that succeeded.
+   */
+  long getSucceeded();
+
+  /**
+   * @return Number of completed imports that failed.
+   */
+  long getFailed();
+
+  /**
+   * @return Number of bytes of content fetched by completed imports.
+   */
+  long getBytesFetched();
+}
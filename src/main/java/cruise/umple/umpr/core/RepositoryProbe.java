@@ -0,0 +1,236 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import cruise.umple.umpr.core.entities.ImportEntity;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Checks which {@link Repository} instances are accessible before importing from them. All probes run concurrently
+ * and share one deadline, a {@link Repository} whose probe has not finished by the deadline is treated as
+ * inaccessible, thus one unresponsive host no longer delays the whole run.
+ *
+ * <p>
+ * Reachability is remembered for a time-to-live, optionally across runs in a cache file. A {@link Repository} proven
+ * reachable within the time-to-live is not probed at all. Besides a successful probe, discovering an
+ * {@link ImportEntity} of a {@link Repository} proves it reachable, see {@link #discover(Repository)}. Only
+ * reachability is cached, an inaccessible {@link Repository} is probed again by the next run.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public final class RepositoryProbe {
+
+  public static final long DEFAULT_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+  public static final long DEFAULT_TTL = TimeUnit.HOURS.toMillis(1);
+
+  private final Logger log = Logger.getLogger(RepositoryProbe.class.getName());
+
+  private final Optional<Path> cacheFile;
+  private final long ttl;
+  private final long timeout;
+
+  /**
+   * {@link Repository#getName() Name} to the last time, in milliseconds since the epoch, it was proven reachable.
+   */
+  private final Map<String, Long> reachable = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new probe, loading previous results from {@code cacheFile} if it exists.
+   *
+   * @param cacheFile File to keep results in across runs, {@link Optional#empty()} to only keep them in memory
+   * @param ttl Milliseconds a {@link Repository} proven reachable is not probed again, {@code 0} disables caching
+   * @param timeout Milliseconds all probes of a {@link #probe(Collection)} call must finish in, must be positive
+   *
+   * @since Oct 18, 2026
+   */
+  public RepositoryProbe(final Optional<Path> cacheFile, final long ttl, final long timeout) {
+    checkArgument(ttl >= 0, "ttl must not be negative: %s", ttl);
+    checkArgument(timeout > 0, "timeout must be positive: %s", timeout);
+
+    this.cacheFile = checkNotNull(cacheFile);
+    this.ttl = ttl;
+    this.timeout = timeout;
+
+    cacheFile.filter(Files::exists).ifPresent(this::load);
+  }
+
+  private void load(final Path file) {
+    final Properties props = new Properties();
+    try (InputStream in = Files.newInputStream(file)) {
+      props.load(in);
+    } catch (IOException ioe) {
+      log.warning("Could not read repository probe cache, probing all repositories: " + ioe.getMessage());
+      return;
+    }
+
+    props.stringPropertyNames().forEach(name -> {
+      try {
+        reachable.put(name, Long.parseLong(props.getProperty(name)));
+      } catch (NumberFormatException nfe) {
+        log.fine("Ignoring malformed probe cache entry: " + name);
+      }
+    });
+  }
+
+  /**
+   * Checks if a {@link Repository} was proven reachable within the time-to-live.
+   *
+   * @param repository {@link Repository} to check
+   * @return {@code true} if {@code repository} does not need to be probed.
+   */
+  public boolean isKnownReachable(final Repository repository) {
+    final Long last = reachable.get(repository.getName());
+
+    return last != null && System.currentTimeMillis() - last < ttl;
+  }
+
+  /**
+   * Records that a {@link Repository} is reachable now.
+   *
+   * @param repository Reachable {@link Repository}
+   */
+  public void markReachable(final Repository repository) {
+    reachable.put(repository.getName(), System.currentTimeMillis());
+  }
+
+  /**
+   * Probes every {@link Repository} not {@link #isKnownReachable(Repository) known to be reachable} concurrently,
+   * waiting at most the timeout for all of them.
+   *
+   * @param repositories Repositories to probe
+   * @return Non-{@code null}, possibly empty {@link List} of the accessible repositories, in the order given.
+   *
+   * @since Oct 18, 2026
+   */
+  public List<Repository> probe(final Collection<Repository> repositories) {
+    checkNotNull(repositories);
+
+    final List<Repository> toProbe = repositories.stream()
+        .filter(r -> !isKnownReachable(r))
+        .collect(Collectors.toList());
+    final Set<Repository> inaccessible = new HashSet<>(toProbe);
+
+    log.config("Probing " + toProbe.size() + " of " + repositories.size() + " repositories.");
+
+    if (!toProbe.isEmpty()) {
+      // probes block on I/O, so each gets its own thread
+      final ExecutorService executor = Executors.newFixedThreadPool(toProbe.size(),
+          new ThreadFactoryBuilder().setNameFormat("probe-%d").setDaemon(true).build());
+      try {
+        final List<Callable<Boolean>> probes = toProbe.stream()
+            .<Callable<Boolean>>map(r -> r::isAccessible)
+            .collect(Collectors.toList());
+        final List<Future<Boolean>> results = executor.invokeAll(probes, timeout, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < results.size(); ++i) {
+          final Repository repository = toProbe.get(i);
+          if (isAccessible(repository, results.get(i))) {
+            markReachable(repository);
+            inaccessible.remove(repository);
+          }
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw Throwables.propagate(ie);
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    return ImmutableList.copyOf(repositories.stream().filter(r -> !inaccessible.contains(r)).iterator());
+  }
+
+  private boolean isAccessible(final Repository repository, final Future<Boolean> result) {
+    try {
+      if (result.get()) {
+        return true;
+      }
+
+      log.warning("Repository is not accessible: " + repository.getName());
+    } catch (CancellationException ce) {
+      log.warning("Repository probe timed out after " + timeout + "ms: " + repository.getName());
+    } catch (ExecutionException ee) {
+      log.warning("Repository probe failed for " + repository.getName() + ": " + ee.getCause());
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw Throwables.propagate(ie);
+    }
+
+    return false;
+  }
+
+  /**
+   * Discovers the {@link ImportEntity} instances of a {@link Repository}, the first one found proves the
+   * {@link Repository} reachable.
+   *
+   * @param repository {@link Repository} to discover
+   * @return Result of {@link Repository#getImports()}.
+   *
+   * @since Oct 18, 2026
+   */
+  public Stream<ImportEntity> discover(final Repository repository) {
+    return repository.getImports().peek(e -> {
+      if (!isKnownReachable(repository)) {
+        markReachable(repository);
+      }
+    });
+  }
+
+  /**
+   * Writes the reachability results to the cache file, if there is one. The file is replaced atomically.
+   *
+   * @throws IOException if the file could not be written.
+   * @since Oct 18, 2026
+   */
+  public void save() throws IOException {
+    if (!cacheFile.isPresent()) {
+      return;
+    }
+
+    final Path file = cacheFile.get().toAbsolutePath();
+    final Properties props = new Properties();
+    reachable.forEach((name, time) -> props.setProperty(name, Long.toString(time)));
+
+    Files.createDirectories(file.getParent());
+    final Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(tmp)) {
+        props.store(out, "Last time each repository was reachable, in milliseconds since the epoch");
+      }
+
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+}
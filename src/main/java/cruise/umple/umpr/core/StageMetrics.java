@@ -0,0 +1,147 @@
+package cruise.umple.umpr.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Timing and size of a single {@link ImportFSM.State} of an {@link ImportFSM}. Times are in nanoseconds, sizes in
+ * bytes; a value that could not be measured is {@code -1}.
+ *
+ * @since Oct 18, 2026
+ */
+public final class StageMetrics {
+
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+  // CPU time charged to each thread by work it waited on elsewhere, the second value counts unmeasured charges
+  private static final ThreadLocal<long[]> CHARGED = ThreadLocal.withInitial(() -> new long[2]);
+
+  /**
+   * Measures a stage from when it is {@link StageMetrics#start() started} until it is {@link #stop(long, long)
+   * stopped}, both must be called on the thread running the stage. CPU time {@link StageMetrics#chargeCpu(long)
+   * charged} to the thread meanwhile is included.
+   */
+  public static final class Timer {
+
+    private final long wallStart = System.nanoTime();
+    private final long cpuStart = cpuTime();
+    private final long chargedStart = CHARGED.get()[0];
+    private final long unmeasuredStart = CHARGED.get()[1];
+
+    private Timer() { }
+
+    /**
+     * Stops the timer.
+     *
+     * @param inputBytes Number of bytes the stage read
+     * @param outputBytes Number of bytes the stage produced
+     * @return New non-{@code null} instance.
+     */
+    public StageMetrics stop(final long inputBytes, final long outputBytes) {
+      final long cpuEnd = cpuTime();
+      final long[] charged = CHARGED.get();
+
+      final boolean measured = cpuStart >= 0 && cpuEnd >= 0 && charged[1] == unmeasuredStart;
+      return new StageMetrics(System.nanoTime() - wallStart,
+          measured ? cpuEnd - cpuStart + charged[0] - chargedStart : -1, inputBytes, outputBytes);
+    }
+  }
+
+  private final long wallNanos;
+  private final long cpuNanos;
+  private final long inputBytes;
+  private final long outputBytes;
+
+  public StageMetrics(final long wallNanos, final long cpuNanos, final long inputBytes, final long outputBytes) {
+    this.wallNanos = wallNanos;
+    this.cpuNanos = cpuNanos;
+    this.inputBytes = inputBytes;
+    this.outputBytes = outputBytes;
+  }
+
+  /**
+   * Starts measuring a stage on the current thread.
+   *
+   * @return New non-{@code null} {@link Timer}.
+   */
+  public static Timer start() {
+    return new Timer();
+  }
+
+  /**
+   * Charges CPU time used on behalf of the current thread by another thread or process, e.g. an
+   * {@link UmpleWorkerPool} child, to the stage running on the current thread.
+   *
+   * @param cpuNanos CPU time in nanoseconds, {@code -1} if it could not be measured
+   */
+  static void chargeCpu(final long cpuNanos) {
+    final long[] charged = CHARGED.get();
+    if (cpuNanos < 0) {
+      ++charged[1];
+    } else {
+      charged[0] += cpuNanos;
+    }
+  }
+
+  /**
+   * @return CPU time of the current thread in nanoseconds, {@code -1} if the JVM does not support measuring it.
+   */
+  static long cpuTime() {
+    return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+  }
+
+  /**
+   * @return Elapsed time of the stage.
+   */
+  public long getWallNanos() {
+    return wallNanos;
+  }
+
+  /**
+   * @return CPU time the stage used, this excludes time blocked on I/O.
+   */
+  public long getCpuNanos() {
+    return cpuNanos;
+  }
+
+  public long getInputBytes() {
+    return inputBytes;
+  }
+
+  public long getOutputBytes() {
+    return outputBytes;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (!(obj instanceof StageMetrics)) {
+      return false;
+    }
+
+    final StageMetrics other = (StageMetrics)obj;
+    return wallNanos == other.wallNanos && cpuNanos == other.cpuNanos && inputBytes == other.inputBytes
+        && outputBytes == other.outputBytes;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(wallNanos, cpuNanos, inputBytes, outputBytes);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("wallNanos", wallNanos)
+        .add("cpuNanos", cpuNanos)
+        .add("inputBytes", inputBytes)
+        .add("outputBytes", outputBytes)
+        .toString();
+  }
+}
@@ -0,0 +1,167 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Enforces a time budget on the {@link ImportFSM.State#Fetch}, {@link ImportFSM.State#Import} and
+ * {@link ImportFSM.State#Model} states. A stage is {@link #watch(ImportFSM, ImportFSM.State, Consumer) watched} on the
+ * thread running it; if it is still running when its budget is spent, the thread is interrupted and the expiry
+ * callback is run on the watchdog thread, thus the caller can abandon the stage rather than wait for it.
+ *
+ * <p>
+ * Interrupting only stops stages that check for it, e.g. blocking channel I/O. The Umple compiler does not, a stage
+ * stuck in it keeps its thread until it returns on its own; the caller is expected to replace that thread.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+final class StageWatchdog implements AutoCloseable {
+
+  /**
+   * Failure of a stage that exceeded its budget.
+   */
+  static final class StageTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    StageTimeoutException(final ImportFSM.State state, final long budget) {
+      super(state + " exceeded its budget of " + budget + "ms.");
+    }
+  }
+
+  /**
+   * A stage being watched, it must be {@link #stop() stopped} on the thread that ran the stage once it returns.
+   */
+  static final class Watch {
+
+    private static final Watch NONE = new Watch(null);
+
+    private final Thread thread;
+
+    private ScheduledFuture<?> deadline = null;
+    private boolean stopped = false;
+    private boolean expired = false;
+
+    private Watch(final Thread thread) {
+      this.thread = thread;
+    }
+
+    /**
+     * Expires the stage unless it was stopped, {@link #stop()} waits for {@code onExpired} to finish, thus the stage
+     * is never seen as expired before it was abandoned.
+     */
+    private synchronized void expire(final Runnable onExpired) {
+      if (stopped) {
+        return;
+      }
+
+      expired = true;
+      thread.interrupt();
+      onExpired.run();
+    }
+
+    /**
+     * Stops watching the stage, if it expired the interrupt sent to the current thread is cleared.
+     *
+     * @return {@code true} if the stage exceeded its budget and was abandoned.
+     */
+    boolean stop() {
+      return this != NONE && stopWatched();
+    }
+
+    private synchronized boolean stopWatched() {
+      stopped = true;
+      deadline.cancel(false);
+
+      if (expired) {
+        Thread.interrupted();
+      }
+
+      return expired;
+    }
+  }
+
+  private final Map<ImportFSM.State, Long> budgets;
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setNameFormat("umpr-watchdog").setDaemon(true).build());
+
+  /**
+   * Creates a new watchdog.
+   *
+   * @param budgets Milliseconds each state may run, a state without a budget is not watched
+   */
+  StageWatchdog(final Map<ImportFSM.State, Long> budgets) {
+    checkNotNull(budgets);
+    budgets.forEach((state, budget) -> checkArgument(budget > 0, "%s budget must be positive: %s", state, budget));
+
+    this.budgets = budgets.isEmpty() ? new EnumMap<>(ImportFSM.State.class) : new EnumMap<>(budgets);
+  }
+
+  /**
+   * Creates the budgets of a {@link ConsoleMain.Config}, a timeout of {@code 0} is no budget.
+   *
+   * @param cfg Configuration holding the timeouts in seconds
+   * @return Non-{@code null}, possibly empty budgets in milliseconds.
+   */
+  static Map<ImportFSM.State, Long> budgets(final ConsoleMain.Config cfg) {
+    final Map<ImportFSM.State, Long> budgets = new EnumMap<>(ImportFSM.State.class);
+    final long[] timeouts = { cfg.fetchTimeout, cfg.importTimeout, cfg.modelTimeout };
+    final ImportFSM.State[] states = { ImportFSM.State.Fetch, ImportFSM.State.Import, ImportFSM.State.Model };
+
+    for (int i = 0; i < states.length; ++i) {
+      checkArgument(timeouts[i] >= 0, "%s timeout must not be negative: %s", states[i], timeouts[i]);
+      if (timeouts[i] > 0) {
+        budgets.put(states[i], TimeUnit.SECONDS.toMillis(timeouts[i]));
+      }
+    }
+
+    return budgets;
+  }
+
+  /**
+   * Starts watching a stage run by the current thread.
+   *
+   * @param fsm {@link ImportFSM} running the stage
+   * @param state State being run
+   * @param onExpired Called on the watchdog thread if the stage exceeds its budget, after the current thread was
+   *    interrupted, {@link Watch#stop()} waits for it to return
+   * @return Non-{@code null} {@link Watch} to stop once the stage returns.
+   */
+  Watch watch(final ImportFSM fsm, final ImportFSM.State state, final Consumer<StageTimeoutException> onExpired) {
+    checkNotNull(fsm);
+    checkNotNull(onExpired);
+
+    final Long budget = budgets.get(checkNotNull(state));
+    if (budget == null) {
+      return Watch.NONE;
+    }
+
+    final Watch watch = new Watch(Thread.currentThread());
+    synchronized (watch) {
+      watch.deadline = scheduler.schedule(() -> watch.expire(() -> onExpired.accept(
+          new StageTimeoutException(state, budget))), budget, TimeUnit.MILLISECONDS);
+    }
+
+    return watch;
+  }
+
+  /**
+   * Stops watching, stages that are still watched are never abandoned.
+   */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+}
@@ -0,0 +1,104 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import cruise.umple.compiler.UmpleFile;
+import cruise.umple.compiler.UmpleImportHandler;
+import cruise.umple.compiler.UmpleImportModel;
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.compiler.UmpleModel;
+
+import com.google.common.io.ByteSource;
+
+/**
+ * Runs the Umple compiler for the {@link ImportFSM.State#Import} and {@link ImportFSM.State#Model} states. By default
+ * the compiler runs in this JVM, once an {@link UmpleWorkerPool} is {@link #setWorkers(Optional) set} every file is
+ * sent to one of its child JVMs instead.
+ *
+ * @since Oct 18, 2026
+ */
+final class UmpleCompiler {
+
+  private UmpleCompiler() {
+  }
+
+  private static volatile Optional<UmpleWorkerPool> workers = Optional.empty();
+
+  /**
+   * Sets the pool the compiler runs in, the pool is not closed when it is replaced.
+   *
+   * @param pool Pool of child JVMs, {@link Optional#empty()} to run in this JVM
+   */
+  static void setWorkers(final Optional<UmpleWorkerPool> pool) {
+    workers = checkNotNull(pool);
+  }
+
+  static Optional<UmpleWorkerPool> getWorkers() {
+    return workers;
+  }
+
+  /**
+   * Imports a file into Umple.
+   *
+   * @param type Type of the file
+   * @param content Content of the file
+   * @return The generated Umple content.
+   * @throws Exception if the file can not be imported.
+   */
+  static String importUmple(final UmpleImportType type, final ByteSource content) throws Exception {
+    final Optional<UmpleWorkerPool> pool = workers;
+    if (pool.isPresent()) {
+      return pool.get().importUmple(type, content);
+    }
+
+    try (InputStream in = content.openStream()) {
+      return importLocally(type, in);
+    }
+  }
+
+  /**
+   * Models an Umple file without generating code.
+   *
+   * @param file Umple file on disk
+   * @throws Exception if the file can not be modelled.
+   */
+  static void model(final Path file) throws Exception {
+    final Optional<UmpleWorkerPool> pool = workers;
+    if (pool.isPresent()) {
+      pool.get().model(file);
+    } else {
+      modelLocally(file);
+    }
+  }
+
+  /**
+   * Imports a file into Umple on the current thread, using a handler from {@link ImportHandlers}.
+   */
+  static String importLocally(final UmpleImportType type, final InputStream in) throws Exception {
+    final UmpleImportHandler handler = ImportHandlers.acquire(type);
+    try {
+      final UmpleImportModel model = handler.readDataFromXML(in);
+      if (!handler.isSuccessful()) {
+        throw handler.getParseException().get();
+      }
+
+      return model.generateUmple();
+    } finally {
+      ImportHandlers.release(type, handler);
+    }
+  }
+
+  /**
+   * Models an Umple file on the current thread.
+   */
+  static void modelLocally(final Path file) throws Exception {
+    // UmpleModel only reads from an UmpleFile on disk
+    final UmpleModel model = new UmpleModel(new UmpleFile(file.toFile()));
+    model.setShouldGenerate(false);
+    model.run();
+  }
+}
@@ -3,6 +3,8 @@
  */
 package cruise.umple.umpr.core;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
@@ -37,7 +39,6 @@ public abstract class UmpleImportTypes {
       final int mods = f.getModifiers();
       
       return f.getType() == UmpleImportType.class && 
-          f.isAccessible() && 
           Modifier.isStatic(mods) && Modifier.isPublic(mods);
     }).forEach(f -> {
       try {
@@ -69,5 +70,21 @@ public abstract class UmpleImportTypes {
     
     return ALL_TYPES.get(name);
   }
+  
+  /**
+   * Gets the name of an {@link UmpleImportType}, the inverse of {@link #valueOf(String)}. 
+   * @param type The {@link UmpleImportType}
+   * @return Non-{@code null} name accepted by {@link #valueOf(String)}. 
+   * @throws NoSuchElementException if type is not a constant of {@link UmpleImportType}
+   */
+  public static String nameOf(final UmpleImportType type) {
+    checkNotNull(type);
+    
+    return ALL_TYPES.entrySet().stream()
+        .filter(e -> e.getValue() == type)
+        .map(Map.Entry::getKey)
+        .findFirst()
+        .orElseThrow(() -> new NoSuchElementException("UmpleImportType " + type + " is not a constant."));
+  }
     
 }
@@ -0,0 +1,58 @@
+package cruise.umple.umpr.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import cruise.umple.compiler.UmpleImportType;
+
+import com.google.common.io.ByteSource;
+
+/**
+ * Runs the Umple compiler over a tiny Ecore model the same way {@link ImportFSM} imports and models a file, thus the
+ * classes, grammar and handlers used by the first real file are loaded before it is timed. With an
+ * {@link UmpleWorkerPool}, a worker of the pool is warmed up instead.
+ *
+ * @since Oct 18, 2026
+ */
+final class UmpleWarmUp {
+
+  private UmpleWarmUp() {
+  }
+
+  private static final String ECORE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+      + "<ecore:EPackage xmi:version=\"2.0\" xmlns:xmi=\"http://www.omg.org/XMI\" "
+      + "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns:ecore=\"http://www.eclipse.org/emf/2002/Ecore\" "
+      + "name=\"warmup\" nsURI=\"http://cruise.umple.umpr/warmup\" nsPrefix=\"warmup\">\n"
+      + "  <eClassifiers xsi:type=\"ecore:EClass\" name=\"WarmUp\">\n"
+      + "    <eStructuralFeatures xsi:type=\"ecore:EAttribute\" name=\"name\" "
+      + "eType=\"ecore:EDataType http://www.eclipse.org/emf/2002/Ecore#//EString\"/>\n"
+      + "  </eClassifiers>\n"
+      + "</ecore:EPackage>\n";
+
+  /**
+   * Imports and models the warm-up model on the current thread, see {@link UmpleCompiler}.
+   *
+   * @param dir Folder to write the Umple file to, it must not be shared by concurrent calls
+   * @throws Exception if the Umple compiler fails
+   */
+  static void run(final Path dir) throws Exception {
+    final String umple = UmpleCompiler.importUmple(UmpleImportType.ECORE,
+        ByteSource.wrap(ECORE.getBytes(StandardCharsets.UTF_8)));
+
+    final Path file = dir.resolve("warmup.ump");
+    try {
+      Files.createDirectories(dir);
+      Files.write(file, umple.getBytes(StandardCharsets.UTF_8));
+
+      UmpleCompiler.model(file);
+    } finally {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException ioe) {
+        file.toFile().deleteOnExit();
+      }
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package cruise.umple.umpr.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import cruise.umple.compiler.UmpleImportType;
+
+import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+
+/**
+ * Entry point of a child JVM of an {@link UmpleWorkerPool}. Serves requests read from {@code stdin} one at a time with
+ * {@link UmpleCompiler} and writes each response to {@code stdout} until {@code stdin} is closed.
+ *
+ * <p>
+ * A request is the operation, {@link #IMPORT} followed by the {@link UmpleImportType} name and the content, or
+ * {@link #MODEL} followed by the path of the Umple file. A response is {@link #OK} or {@link #FAILED}, followed by
+ * the CPU time of the request in nanoseconds ({@code -1} if unmeasured) and then the generated Umple for an import,
+ * or the type, message and stack trace of the failure. Strings and content
+ * are written as their length followed by their UTF-8 bytes. {@code stdout} is reserved for responses, anything the
+ * compiler prints is sent to {@code stderr}.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+final class UmpleWorker {
+
+  private UmpleWorker() {
+  }
+
+  static final int IMPORT = 1;
+  static final int MODEL = 2;
+
+  static final int OK = 0;
+  static final int FAILED = 1;
+
+  /**
+   * Argument that enables {@link ImportHandlers#setReuse(boolean)} in the child.
+   */
+  static final String REUSE_HANDLERS = "--reuse-handlers";
+
+  /**
+   * Runs the requests of a child.
+   */
+  interface Compiler {
+
+    String importUmple(UmpleImportType type, InputStream in) throws Exception;
+
+    void model(Path file) throws Exception;
+  }
+
+  /**
+   * Runs requests with {@link UmpleCompiler} in the child.
+   */
+  static final Compiler LOCAL = new Compiler() {
+    @Override
+    public String importUmple(final UmpleImportType type, final InputStream in) throws Exception {
+      return UmpleCompiler.importLocally(type, in);
+    }
+
+    @Override
+    public void model(final Path file) throws Exception {
+      UmpleCompiler.modelLocally(file);
+    }
+  };
+
+  private static final Logger logger = Logger.getLogger(UmpleWorker.class.getName());
+
+  public static void main(final String[] args) throws IOException {
+    run(args, LOCAL);
+  }
+
+  /**
+   * Serves the requests sent to this JVM by its parent.
+   *
+   * @param args Arguments of the child
+   * @param compiler Compiler running the requests
+   * @throws IOException if a request can not be read or a response can not be written.
+   */
+  static void run(final String[] args, final Compiler compiler) throws IOException {
+    final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(FileDescriptor.out)));
+    System.setOut(System.err);
+
+    ImportHandlers.setReuse(Arrays.asList(args).contains(REUSE_HANDLERS));
+
+    serve(new DataInputStream(new BufferedInputStream(System.in)), out, compiler);
+  }
+
+  /**
+   * Serves requests until {@code in} ends.
+   *
+   * @throws IOException if a request can not be read or a response can not be written.
+   */
+  static void serve(final DataInputStream in, final DataOutputStream out, final Compiler compiler)
+      throws IOException {
+    for (int op = in.read(); op >= 0; op = in.read()) {
+      final UmpleImportType type = op == IMPORT ? UmpleImportTypes.valueOf(readString(in)) : null;
+      final byte[] content = op == IMPORT ? readBytes(in) : null;
+      final String file = op == MODEL ? readString(in) : null;
+      if (op != IMPORT && op != MODEL) {
+        throw new IOException("Unknown request: " + op);
+      }
+
+      final long cpuStart = StageMetrics.cpuTime();
+      try {
+        if (op == IMPORT) {
+          final String umple = compiler.importUmple(type, new ByteArrayInputStream(content));
+          out.writeByte(OK);
+          out.writeLong(cpuSince(cpuStart));
+          writeBytes(out, umple.getBytes(StandardCharsets.UTF_8));
+        } else {
+          compiler.model(Paths.get(file));
+          out.writeByte(OK);
+          out.writeLong(cpuSince(cpuStart));
+        }
+      } catch (Exception | StackOverflowError e) {
+        logger.fine("Request failed:\n" + Throwables.getStackTraceAsString(e));
+
+        out.writeByte(FAILED);
+        out.writeLong(cpuSince(cpuStart));
+        writeString(out, e.getClass().getName());
+        writeString(out, Strings.nullToEmpty(e.getMessage()));
+        writeString(out, Throwables.getStackTraceAsString(e));
+      }
+
+      out.flush();
+    }
+  }
+
+  private static long cpuSince(final long cpuStart) {
+    final long cpuEnd = StageMetrics.cpuTime();
+    return (cpuStart < 0 || cpuEnd < 0) ? -1 : cpuEnd - cpuStart;
+  }
+
+  static byte[] readBytes(final DataInputStream in) throws IOException {
+    final byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  static void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  static String readString(final DataInputStream in) throws IOException {
+    return new String(readBytes(in), StandardCharsets.UTF_8);
+  }
+
+  static void writeString(final DataOutputStream out, final String value) throws IOException {
+    writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,366 @@
+package cruise.umple.umpr.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import cruise.umple.compiler.UmpleImportType;
+
+import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Pool of long-lived child JVMs running the Umple compiler, see {@link UmpleWorker}. Each child serves one file at a
+ * time and is reused for many files, thus its start-up is paid once. Its heap is bounded separately from this JVM and
+ * it exits on an {@link OutOfMemoryError}; a child that exits or breaks the protocol fails only the file it was
+ * serving with a {@link WorkerCrashedException} and a new child is started for the next file.
+ *
+ * <p>
+ * Children are started on demand, up to the size of the pool; a caller waits while all of them are busy. The children
+ * use the classpath of this JVM and read and write Umple files on the same file system.
+ * </p>
+ *
+ * <p>
+ * A caller waiting for a child can be interrupted, e.g. by the {@link StageWatchdog} when a stage runs past its
+ * budget. Reading from a child does not respond to interrupts, thus the reply is read on another thread; once the
+ * caller is interrupted its child is stopped, as it may never reply, and replaced by the next file.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+final class UmpleWorkerPool implements AutoCloseable {
+
+  /**
+   * Default maximum heap of a child in megabytes.
+   */
+  static final int DEFAULT_HEAP = 512;
+
+  /**
+   * Failure reported by a child, the child is still usable.
+   */
+  static final class WorkerFailure extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String remoteType;
+
+    WorkerFailure(final String remoteType, final String message, final String remoteTrace) {
+      super(Strings.isNullOrEmpty(message) ? remoteTrace : message);
+      this.remoteType = remoteType;
+    }
+
+    /**
+     * @return Class name of the exception thrown in the child.
+     */
+    String getRemoteType() {
+      return remoteType;
+    }
+
+    @Override
+    public String toString() {
+      return remoteType + ": " + getMessage();
+    }
+  }
+
+  /**
+   * A child exited or broke the protocol while serving a file, e.g. it ran out of heap.
+   */
+  static final class WorkerCrashedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    WorkerCrashedException(final String message, final Throwable cause) {
+      super(message, cause);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Exchange<T> {
+    T run(Worker worker) throws IOException, WorkerFailure;
+  }
+
+  private static final class Worker {
+
+    private final Process process;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+
+    // CPU time the child reported for its last request
+    private long cpuNanos;
+
+    Worker(final Process process) {
+      this.process = process;
+      this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+      this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    void destroy() {
+      process.destroyForcibly();
+    }
+  }
+
+  private final Logger logger = Logger.getLogger(getClass().getName());
+
+  private final List<String> command;
+  private final int size;
+
+  private final Semaphore permits;
+  private final Deque<Worker> idle = new ArrayDeque<>();
+  private final Set<Worker> busy = new HashSet<>();
+
+  // exchanges with the children, thus callers wait for replies interruptibly
+  private final ExecutorService exchanges = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat("umpr-worker-io-%d").setDaemon(true).build());
+
+  private final AtomicInteger started = new AtomicInteger();
+  private final AtomicInteger crashed = new AtomicInteger();
+  private final AtomicInteger stopped = new AtomicInteger();
+
+  private boolean closed = false;
+
+  /**
+   * Creates a new pool, no child is started until it is needed.
+   *
+   * @param size Maximum number of children
+   * @param heap Maximum heap of each child in megabytes
+   * @param reuseHandlers {@code true} to {@link ImportHandlers#setReuse(boolean) reuse handlers} in the children
+   */
+  UmpleWorkerPool(final int size, final int heap, final boolean reuseHandlers) {
+    this(size, heap, reuseHandlers, UmpleWorker.class);
+  }
+
+  /**
+   * Creates a new pool, no child is started until it is needed.
+   *
+   * @param size Maximum number of children
+   * @param heap Maximum heap of each child in megabytes
+   * @param reuseHandlers {@code true} to {@link ImportHandlers#setReuse(boolean) reuse handlers} in the children
+   * @param main Main class of the children, it must serve requests like {@link UmpleWorker}
+   */
+  UmpleWorkerPool(final int size, final int heap, final boolean reuseHandlers, final Class<?> main) {
+    checkNotNull(main);
+    checkArgument(size > 0, "size must be positive: %s", size);
+    checkArgument(heap > 0, "heap must be positive: %s", heap);
+
+    final ImmutableList.Builder<String> command = ImmutableList.<String>builder()
+        .add(Paths.get(System.getProperty("java.home"), "bin", "java").toString())
+        .add("-Xmx" + heap + "m", "-XX:+ExitOnOutOfMemoryError")
+        .add("-cp", System.getProperty("java.class.path"))
+        .add(main.getName());
+    if (reuseHandlers) {
+      command.add(UmpleWorker.REUSE_HANDLERS);
+    }
+
+    this.command = command.build();
+    this.size = size;
+    this.permits = new Semaphore(size, true);
+  }
+
+  int getSize() {
+    return size;
+  }
+
+  /**
+   * @return Number of children started, including those that replaced a crashed child.
+   */
+  int getStarted() {
+    return started.get();
+  }
+
+  /**
+   * @return Number of children that crashed while serving a file.
+   */
+  int getCrashed() {
+    return crashed.get();
+  }
+
+  /**
+   * @return Number of children stopped because their caller was interrupted.
+   */
+  int getStopped() {
+    return stopped.get();
+  }
+
+  /**
+   * Imports a file into Umple in a child.
+   *
+   * @see UmpleCompiler#importUmple(UmpleImportType, ByteSource)
+   */
+  String importUmple(final UmpleImportType type, final ByteSource content) throws Exception {
+    final String name = UmpleImportTypes.nameOf(checkNotNull(type));
+    final long length = content.size();
+    checkArgument(length <= Integer.MAX_VALUE, "Content is too large for a worker: %s bytes", length);
+
+    return call(worker -> {
+      worker.out.writeByte(UmpleWorker.IMPORT);
+      UmpleWorker.writeString(worker.out, name);
+      worker.out.writeInt((int) length);
+      content.copyTo(worker.out);
+      worker.out.flush();
+
+      readStatus(worker);
+      return UmpleWorker.readString(worker.in);
+    });
+  }
+
+  /**
+   * Models an Umple file in a child.
+   *
+   * @see UmpleCompiler#model(Path)
+   */
+  void model(final Path file) throws Exception {
+    final String path = file.toAbsolutePath().toString();
+
+    call(worker -> {
+      worker.out.writeByte(UmpleWorker.MODEL);
+      UmpleWorker.writeString(worker.out, path);
+      worker.out.flush();
+
+      readStatus(worker);
+      return null;
+    });
+  }
+
+  private static void readStatus(final Worker worker) throws IOException, WorkerFailure {
+    final int status = worker.in.readUnsignedByte();
+    if (status == UmpleWorker.OK || status == UmpleWorker.FAILED) {
+      worker.cpuNanos = worker.in.readLong();
+    }
+
+    if (status == UmpleWorker.FAILED) {
+      throw new WorkerFailure(UmpleWorker.readString(worker.in), UmpleWorker.readString(worker.in),
+          UmpleWorker.readString(worker.in));
+    } else if (status != UmpleWorker.OK) {
+      throw new IOException("Unknown response: " + status);
+    }
+  }
+
+  /**
+   * Runs an exchange on an idle child, a child that fails the exchange with an {@link IOException} or whose caller is
+   * interrupted is discarded. The CPU time the child reports is {@link StageMetrics#chargeCpu(long) charged} to the
+   * caller, it is unmeasured if the child does not reply.
+   */
+  private <T> T call(final Exchange<T> exchange) throws Exception {
+    final Worker worker = borrow();
+
+    boolean healthy = false;
+    try {
+      final T result = exchanges.submit(() -> exchange.run(worker)).get();
+      healthy = true;
+      return result;
+    } catch (InterruptedException ie) {
+      // the child may never reply, it is stopped rather than left running
+      stopped.incrementAndGet();
+      logger.fine("Stopping Umple worker, its caller was interrupted.");
+      throw ie;
+    } catch (ExecutionException ee) {
+      final Throwable cause = ee.getCause();
+      if (cause instanceof WorkerFailure) {
+        // reported by the child, thus it is still serving
+        healthy = true;
+        throw (WorkerFailure) cause;
+      } else if (!(cause instanceof IOException)) {
+        throw Throwables.propagate(cause);
+      }
+
+      crashed.incrementAndGet();
+
+      final String exit = worker.process.waitFor(1, TimeUnit.SECONDS)
+          ? " with exit code " + worker.process.exitValue() : "";
+      throw new WorkerCrashedException("Umple worker crashed" + exit + ": " + cause.getMessage(), cause);
+    } finally {
+      // a healthy child replied before the future completed, thus its CPU time is visible here
+      StageMetrics.chargeCpu(healthy ? worker.cpuNanos : -1);
+      giveBack(worker, healthy);
+    }
+  }
+
+  private Worker borrow() throws IOException, InterruptedException {
+    permits.acquire();
+
+    try {
+      synchronized (idle) {
+        checkState(!closed, "Worker pool is closed.");
+
+        // the most recently used child is the warmest
+        for (Worker worker = idle.pollFirst(); worker != null; worker = idle.pollFirst()) {
+          if (worker.process.isAlive()) {
+            busy.add(worker);
+            return worker;
+          }
+
+          worker.destroy();
+        }
+
+        final Worker worker = new Worker(new ProcessBuilder(command)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start());
+        logger.fine("Started Umple worker " + started.incrementAndGet() + ".");
+
+        busy.add(worker);
+        return worker;
+      }
+    } catch (IOException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void giveBack(final Worker worker, final boolean healthy) {
+    synchronized (idle) {
+      busy.remove(worker);
+
+      if (healthy && !closed) {
+        idle.addFirst(worker);
+      } else {
+        worker.destroy();
+      }
+    }
+
+    permits.release();
+  }
+
+  /**
+   * Stops all children, a file still being served fails with a {@link WorkerCrashedException}.
+   */
+  @Override
+  public void close() {
+    synchronized (idle) {
+      closed = true;
+
+      idle.forEach(Worker::destroy);
+      idle.clear();
+
+      // e.g. stuck in the compiler, a busy child never sees its stdin close
+      busy.forEach(Worker::destroy);
+    }
+
+    exchanges.shutdown();
+
+    logger.info("Closed Umple worker pool, started " + started.get() + " workers, " + crashed.get() + " crashed, "
+        + stopped.get() + " stopped.");
+  }
+}
@@ -3,6 +3,11 @@ package cruise.umple.umpr.core.consistent;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -10,10 +15,12 @@ import cruise.umple.compiler.UmpleImportType;
 import cruise.umple.umpr.core.DiagramType;
 import cruise.umple.umpr.core.ImportAttrib;
 import cruise.umple.umpr.core.ImportFSM;
+import cruise.umple.umpr.core.ImportResult;
 import cruise.umple.umpr.core.License;
+import cruise.umple.umpr.core.StageMetrics;
 
-import com.google.common.base.Strings;
-import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 
@@ -65,6 +72,26 @@ public class ConsistentRepositoryBuilder {
     return this;
   }
   
+  /**
+   * Given the files within the current import repository, calculate the distribution of the {@link StageMetrics} of
+   * each {@link ImportFSM.State}. Files without metrics are ignored, a state that no file ran is not included.
+   * @return {@code this}.
+   * 
+   * @since Oct 18, 2026
+   */
+  public ConsistentRepositoryBuilder withCalculatedStageSummaries() {
+    final Map<ImportFSM.State, List<StageMetrics>> byState = new EnumMap<>(ImportFSM.State.class);
+    importRepos.getFiles().stream()
+      .map(ImportFile::getStageMetrics)
+      .filter(Objects::nonNull)
+      .forEach(metrics -> metrics.forEach((state, m) -> 
+          byState.computeIfAbsent(state, s -> new ArrayList<>()).add(m)));
+    
+    importRepos.setStageSummaries(Maps.immutableEnumMap(Maps.transformValues(byState, StageSummary::of)));
+    
+    return this;
+  }
+  
   /**
    * Add the result of an {@link ImportFSM} to the builder.
    * @param fsm Non-{@code null} Finite state machine. 
@@ -75,11 +102,42 @@ public class ConsistentRepositoryBuilder {
   public ConsistentRepositoryBuilder addFSM(final ImportFSM fsm) {
     checkNotNull(fsm);
     
-    if (fsm.isSuccessful()) {
-      addSuccessFile(fsm.getOutputPath().toString(), fsm.getImportType(), fsm.getAttribLoc());
+    return addFSM(fsm.getOutputPath().toString(), fsm);
+  }
+  
+  /**
+   * Add the result of an {@link ImportFSM} to the builder stored under {@code path}. If the {@link ImportFSM} reused
+   * the result of a previous run, the previous result is added. 
+   * @param path Name of file, i.e. the path it will be stored at. 
+   * @param fsm Non-{@code null} Finite state machine. 
+   * @return {@code this} instance. 
+   * 
+   * @since Oct 18, 2026
+   * @see #addResult(String, ImportResult)
+   */
+  public ConsistentRepositoryBuilder addFSM(final String path, final ImportFSM fsm) {
+    checkNotNull(fsm);
+    
+    return addResult(path, fsm.toResult());
+  }
+  
+  /**
+   * Add an {@link ImportResult} to the builder stored under {@code path}.
+   * @param path Name of file, i.e. the path it will be stored at. 
+   * @param result Non-{@code null} result of an {@link ImportFSM}. 
+   * @return {@code this} instance. 
+   * 
+   * @since Oct 18, 2026
+   */
+  public ConsistentRepositoryBuilder addResult(final String path, final ImportResult result) {
+    checkNotNull(result);
+    
+    if (result.isSuccessful()) {
+      addSuccessFile(path, result.getImportType(), result.getAttribLoc(), result.getInputHash(), 
+          result.getStageMetrics());
     } else {
-      addFailedFile(fsm.getOutputPath().toString(), fsm.getImportType(), fsm.getAttribLoc(), fsm.getState(), 
-          fsm.getFailure().get());
+      addFailedFile(path, result.getImportType(), result.getAttribLoc(), result.getState(), 
+          result.getFailure().get(), result.getInputHash(), result.getStageMetrics());
     }
     
     return this;
@@ -95,12 +153,43 @@ public class ConsistentRepositoryBuilder {
    * 
    * @see #addFailedFile(String, String, String)
    */
-  @SuppressWarnings("unused")
   public ConsistentRepositoryBuilder addSuccessFile(final String path, final UmpleImportType fileType, 
       final Optional<ImportAttrib> attrib) {
+    return addSuccessFile(path, fileType, attrib, Optional.empty());
+  }
+  
+  /**
+   * Add a file that was successfully imported.
+   * @param path Name of file, i.e. the path it will be stored at. 
+   * @param fileType The file type
+   * @param hash Hash of the source content
+   * @return {@code this} instance.
+   * 
+   * @since Oct 18, 2026
+   */
+  public ConsistentRepositoryBuilder addSuccessFile(final String path, final UmpleImportType fileType, 
+      final Optional<ImportAttrib> attrib, final Optional<String> hash) {
+    return addSuccessFile(path, fileType, attrib, hash, ImmutableMap.of());
+  }
+  
+  /**
+   * Add a file that was successfully imported.
+   * @param path Name of file, i.e. the path it will be stored at. 
+   * @param fileType The file type
+   * @param hash Hash of the source content
+   * @param stageMetrics Metrics of each state that ran, may be empty
+   * @return {@code this} instance.
+   * 
+   * @since Oct 18, 2026
+   */
+  public ConsistentRepositoryBuilder addSuccessFile(final String path, final UmpleImportType fileType, 
+      final Optional<ImportAttrib> attrib, final Optional<String> hash, 
+      final Map<ImportFSM.State, StageMetrics> stageMetrics) {
     log.finer("Adding successful file: path=" + path + ", type=" + fileType + ", attrib=" + attrib);
     
-    new ImportFile(path, fileType, ImportFSM.State.Completed, "", attrib, importRepos);
+    final ImportFile file = new ImportFile(path, fileType, ImportFSM.State.Completed, "", attrib, importRepos);
+    hash.ifPresent(file::setHash);
+    setStageMetrics(file, stageMetrics);
     
     return this;
   }
@@ -118,13 +207,7 @@ public class ConsistentRepositoryBuilder {
    */
   public ConsistentRepositoryBuilder addFailedFile(final String path, final UmpleImportType fileType, 
       final Optional<ImportAttrib> attrib, final ImportFSM.State state, final Throwable ex) {
-    String message = Throwables.getRootCause(ex).getMessage();
-    if (Strings.isNullOrEmpty(message)) {
-      message = Throwables.getStackTraceAsString(Throwables.getRootCause(ex));
-      log.info("Error importing model: " + Throwables.getStackTraceAsString(ex));
-    }
-    
-    return addFailedFile(path, fileType, attrib, state, message);
+    return addFailedFile(path, fileType, attrib, state, ImportResult.summarize(ex));
   }
   
   /**
@@ -138,16 +221,78 @@ public class ConsistentRepositoryBuilder {
    * 
    * @see #addSuccessFile(String, String)
    */
-  @SuppressWarnings("unused")
   public ConsistentRepositoryBuilder addFailedFile(final String path, final UmpleImportType fileType,
       final Optional<ImportAttrib> attrib, final ImportFSM.State state, final String failMsg) {
+    return addFailedFile(path, fileType, attrib, state, failMsg, Optional.empty());
+  }
+  
+  /**
+   * Add an unsuccessful file, the output path will likely not exist. 
+   * @param path 
+   * @param fileType
+   * @param failMsg Reason for failure
+   * @param hash Hash of the source content, empty if it was never fetched
+   * @return {@code this} instance. 
+   * 
+   * @since Oct 18, 2026
+   */
+  public ConsistentRepositoryBuilder addFailedFile(final String path, final UmpleImportType fileType,
+      final Optional<ImportAttrib> attrib, final ImportFSM.State state, final String failMsg, 
+      final Optional<String> hash) {
+    return addFailedFile(path, fileType, attrib, state, failMsg, hash, ImmutableMap.of());
+  }
+  
+  /**
+   * Add an unsuccessful file, the output path will likely not exist. 
+   * @param path 
+   * @param fileType
+   * @param failMsg Reason for failure
+   * @param hash Hash of the source content, empty if it was never fetched
+   * @param stageMetrics Metrics of each state that ran, including the one that failed, may be empty
+   * @return {@code this} instance. 
+   * 
+   * @since Oct 18, 2026
+   */
+  public ConsistentRepositoryBuilder addFailedFile(final String path, final UmpleImportType fileType,
+      final Optional<ImportAttrib> attrib, final ImportFSM.State state, final String failMsg, 
+      final Optional<String> hash, final Map<ImportFSM.State, StageMetrics> stageMetrics) {
     log.finer("Adding failed file: path=" + path + ", type=" + fileType + ", error=" + failMsg);
 
-    new ImportFile(path, fileType, state, failMsg, attrib, importRepos);
+    final ImportFile file = new ImportFile(path, fileType, state, failMsg, attrib, importRepos);
+    hash.ifPresent(file::setHash);
+    setStageMetrics(file, stageMetrics);
     
     return this;
   }
   
+  /**
+   * Add a copy of an {@link ImportFile} of another {@link ImportRepository}, e.g. one read from JSON.
+   * @param file Non-{@code null} file to copy.
+   * @return {@code this} instance.
+   * 
+   * @since Oct 18, 2026
+   */
+  public ConsistentRepositoryBuilder addFile(final ImportFile file) {
+    checkNotNull(file);
+    
+    final Optional<String> hash = Optional.ofNullable(file.getHash());
+    final Map<ImportFSM.State, StageMetrics> stageMetrics = file.getStageMetrics() == null 
+        ? ImmutableMap.of() : file.getStageMetrics();
+    
+    if (file.isSuccessful()) {
+      return addSuccessFile(file.getPath(), file.getImportType(), file.getAttrib(), hash, stageMetrics);
+    } else {
+      return addFailedFile(file.getPath(), file.getImportType(), file.getAttrib(), file.getLastState(), 
+          file.getMessage(), hash, stageMetrics);
+    }
+  }
+  
+  private static void setStageMetrics(final ImportFile file, final Map<ImportFSM.State, StageMetrics> stageMetrics) {
+    if (!checkNotNull(stageMetrics).isEmpty()) {
+      file.setStageMetrics(Maps.immutableEnumMap(stageMetrics));
+    }
+  }
+  
   /**
    * Fluent API return to return to the parent builder. This call is provided as a convenience not a required call. 
    * @return the {@link ConsistentsBuilder} which created this instance. 
@@ -3,15 +3,22 @@
  */
 package cruise.umple.umpr.core.consistent;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,26 +30,32 @@ import cruise.umple.umpr.core.ConsoleMain;
 import cruise.umple.umpr.core.DiagramType;
 import cruise.umple.umpr.core.ImportAttrib;
 import cruise.umple.umpr.core.ImportFSM;
+import cruise.umple.umpr.core.ImportResult;
 import cruise.umple.umpr.core.License;
 import cruise.umple.umpr.core.Repository;
+import cruise.umple.umpr.core.StageMetrics;
 import cruise.umple.umpr.core.consistent.ConsistentsModule.ConsistentsJacksonConfig;
 import cruise.umple.umpr.core.util.Networks;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 
@@ -57,7 +70,6 @@ public abstract class Consistents {
   @Inject
   private static ConsistentsFactory CONSISTENTS_FACTORY;
   
-  @SuppressWarnings("unused")
   @Inject
   private static Logger logger;
   
@@ -71,14 +83,14 @@ public abstract class Consistents {
    * {@link ConsistentsBuilder}.  
    * 
    * @param outputFolder The location the repository lives. 
-   * @param allData {@link List} of {@link ImportRuntimeData} to map into new the consistent data structures. 
+   * @param allData {@link ImportResult} instances to map into new the consistent data structures. 
    * @return Non-{@code null} instance
    */
   public static ImportRepositorySet buildImportRepositorySet(final Path outputFolder,
                                                              final Path srcFolder, 
-                                                             final Iterable<? extends ImportFSM> allData) {
+                                                             final Iterable<ImportResult> allData) {
     
-    final Multimap<Repository, ? extends ImportFSM> dataByRepo = Multimaps.index(allData, ImportFSM::getRepository);
+    final Multimap<Repository, ImportResult> dataByRepo = Multimaps.index(allData, ImportResult::getRepository);
     
     final ConsistentsBuilder cbld = CONSISTENTS_FACTORY.create(outputFolder, srcFolder);
     dataByRepo.asMap().entrySet().forEach(entry -> {
@@ -87,20 +99,79 @@ public abstract class Consistents {
         
         entry.getValue().forEach( data -> {
           final Path outpath = data.getOutputPath().getFileName();
-          if (data.isSuccessful()) {
-            repoBld.addSuccessFile(outpath.toString(), data.getImportType(), data.getAttribLoc());
-          } else {
-            repoBld.addFailedFile(outpath.toString(), data.getImportType(), data.getAttribLoc(), 
-                data.getState(), data.getFailure().get());
-          }
+          repoBld.addResult(outpath.toString(), data);
         });
         
-        repoBld.withCalculatedSuccessRate();
+        repoBld.withCalculatedSuccessRate()
+          .withCalculatedStageSummaries();
+      });
+    
+    return cbld.getRepositorySet();
+  }
+  
+  /**
+   * Merges the {@link ImportRepositorySet} of each shard of a run, see {@link ConsoleMain.Config#shard}, into one. 
+   * Repositories with the same name are merged, their success rate and stage summaries are recalculated over all of
+   * their files rather than averaged. A file found in more than one set is only kept from the first set. 
+   * 
+   * @param outputFolder The location the merged repository lives. 
+   * @param srcFolder The location the merged import files live. 
+   * @param shards Sets to merge
+   * @return Non-{@code null} instance
+   * 
+   * @since Oct 18, 2026
+   */
+  public static ImportRepositorySet merge(final Path outputFolder, final Path srcFolder, 
+                                          final Iterable<ImportRepositorySet> shards) {
+    final ConsistentsBuilder cbld = CONSISTENTS_FACTORY.create(outputFolder, srcFolder);
+    
+    final Map<String, ConsistentRepositoryBuilder> builders = new LinkedHashMap<>();
+    final SetMultimap<String, String> paths = HashMultimap.create();
+    
+    shards.forEach(shard -> shard.getRepositories().forEach(repo -> {
+      final ConsistentRepositoryBuilder repoBld = builders.computeIfAbsent(repo.getName(), 
+          name -> cbld.withRepository(name, repo.getDiagramType(), repo.getDescription(), repo.getRemoteLoc(), 
+              repo.getLicense()));
+      
+      repo.getFiles().forEach(file -> {
+        if (paths.put(repo.getName(), file.getPath())) {
+          repoBld.addFile(file);
+        } else {
+          logger.warning("Merged " + repo.getName() + "/" + file.getPath() + " more than once, kept the first.");
+        }
       });
+    }));
+    
+    builders.values().forEach(repoBld -> repoBld.withCalculatedSuccessRate()
+        .withCalculatedStageSummaries());
     
     return cbld.getRepositorySet();
   }
   
+  /**
+   * Merges the metadata files written by each shard of a run. 
+   * 
+   * @param outputFolder The location the merged repository lives. 
+   * @param srcFolder The location the merged import files live. 
+   * @param metaFiles JSON files to merge
+   * @return Non-{@code null} instance
+   * @throws IOException if a file can not be read
+   * 
+   * @since Oct 18, 2026
+   * @see #merge(Path, Path, Iterable)
+   */
+  public static ImportRepositorySet mergeFiles(final Path outputFolder, final Path srcFolder, 
+                                               final Iterable<Path> metaFiles) throws IOException {
+    final List<ImportRepositorySet> shards = new ArrayList<>();
+    for (Path file : metaFiles) {
+      try (InputStream in = Files.newInputStream(file)) {
+        shards.add(fromJson(in));
+      }
+    }
+    
+    return merge(outputFolder, srcFolder, shards);
+  }
+  
   /**
    * Converts a POJO to JSON string. 
    * @param obj Object to convert 
@@ -111,14 +182,48 @@ public abstract class Consistents {
    */
   public static <T> String toJson(final T obj) {
     try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-      mapper.writeValue(baos, obj);
+      toJson(obj, baos);
       
-      return baos.toString();
+      return baos.toString(Charsets.UTF_8.name());
     } catch (IOException e) {
       throw new IllegalStateException(e);
     }    
   }
   
+  /**
+   * Streams a POJO as JSON to an {@link OutputStream}, the JSON is never held in memory as a whole. 
+   * @param obj Object to convert
+   * @param out Stream to write to, it is flushed but not closed
+   * 
+   * @throws IOException if writing to {@code out} fails
+   * @since Oct 18, 2026
+   */
+  public static <T> void toJson(final T obj, final OutputStream out) throws IOException {
+    mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, obj);
+  }
+  
+  /**
+   * Streams a POJO as JSON to a file. The JSON is written to a temporary file next to {@code path} which then 
+   * replaces {@code path}, thus an existing file is only replaced by a complete one. 
+   * @param obj Object to convert
+   * @param path File to write
+   * 
+   * @throws IOException if writing the file fails
+   * @since Oct 18, 2026
+   */
+  public static <T> void toJson(final T obj, final Path path) throws IOException {
+    final Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+        toJson(obj, out);
+      }
+      
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+  
   /**
    * Reads an {@link InputStream} of JSON data and returns a new {@link ImportRepositorySet} instance. 
    * @param stream input data (callers responsibility to close)
@@ -209,6 +314,8 @@ public abstract class Consistents {
       gen.writeNumberField("successRate", value.getSuccessRate());
       gen.writeNumberField("failRate", value.getFailRate());
       
+      writeStages(gen, serializers, value.getStageSummaries(), StageSummary.class);
+      
       gen.writeArrayFieldStart("files");
       final JsonSerializer<Object> fileSrlzr = serializers.findValueSerializer(ImportFile.class);
       
@@ -244,6 +351,12 @@ public abstract class Consistents {
         gen.writeStringField("message", value.getMessage());
       }
       
+      if (!Strings.isNullOrEmpty(value.getHash())) {
+        gen.writeStringField("hash", value.getHash());
+      }
+      
+      writeStages(gen, serializers, value.getStageMetrics(), StageMetrics.class);
+      
       value.getAttrib().ifPresent(attrib -> {
         try {
           gen.writeFieldName("attrib");
@@ -261,6 +374,77 @@ public abstract class Consistents {
     }
   }
   
+  /**
+   * Writes a {@code stages} object with a field per {@link ImportFSM.State}, nothing is written if {@code stages} is 
+   * {@code null} or empty.
+   */
+  private static <T> void writeStages(final JsonGenerator gen, final SerializerProvider serializers, 
+      final Map<ImportFSM.State, T> stages, final Class<T> type) throws IOException {
+    if (stages == null || stages.isEmpty()) {
+      return;
+    }
+    
+    final JsonSerializer<Object> srlzr = serializers.findValueSerializer(type);
+    
+    gen.writeObjectFieldStart("stages");
+    for (Map.Entry<ImportFSM.State, T> e : stages.entrySet()) {
+      gen.writeFieldName(e.getKey().toString());
+      srlzr.serialize(e.getValue(), gen, serializers);
+    }
+    gen.writeEndObject();
+  }
+  
+  /**
+   * Converts {@link StageMetrics} to JSON
+   */
+  static class StageMetricsSerializer extends JsonSerializer<StageMetrics> {
+
+    @Override
+    public void serialize(StageMetrics value, JsonGenerator gen, SerializerProvider serializers) throws IOException,
+        JsonProcessingException {
+      gen.writeStartObject();
+      
+      gen.writeNumberField("wallNanos", value.getWallNanos());
+      gen.writeNumberField("cpuNanos", value.getCpuNanos());
+      gen.writeNumberField("inputBytes", value.getInputBytes());
+      gen.writeNumberField("outputBytes", value.getOutputBytes());
+      
+      gen.writeEndObject();
+    }
+  }
+  
+  /**
+   * Converts a {@link StageSummary} to JSON
+   */
+  static class StageSummarySerializer extends JsonSerializer<StageSummary> {
+    
+    private static void writePercentiles(final JsonGenerator gen, final String name, 
+        final StageSummary.Percentiles value) throws IOException {
+      gen.writeObjectFieldStart(name);
+      
+      gen.writeNumberField("p50", value.getP50());
+      gen.writeNumberField("p95", value.getP95());
+      gen.writeNumberField("p99", value.getP99());
+      gen.writeNumberField("max", value.getMax());
+      
+      gen.writeEndObject();
+    }
+
+    @Override
+    public void serialize(StageSummary value, JsonGenerator gen, SerializerProvider serializers) throws IOException,
+        JsonProcessingException {
+      gen.writeStartObject();
+      
+      gen.writeNumberField("count", value.getCount());
+      writePercentiles(gen, "wallNanos", value.getWallNanos());
+      writePercentiles(gen, "cpuNanos", value.getCpuNanos());
+      writePercentiles(gen, "inputBytes", value.getInputBytes());
+      writePercentiles(gen, "outputBytes", value.getOutputBytes());
+      
+      gen.writeEndObject();
+    }
+  }
+  
   static class AttribSerializer extends JsonSerializer<ImportAttrib> {
 
     /* (non-Javadoc)
@@ -279,6 +463,10 @@ public abstract class Consistents {
     
   }
   
+  /**
+   * Converts JSON to an {@link ImportRepositorySet} by streaming over the tokens, thus large documents are read in a
+   * single pass without building a tree. 
+   */
   static class ImportRepositorySetDeserializer extends JsonDeserializer<ImportRepositorySet> {
     
     private final Provider<ConsistentsFactory> factory;
@@ -316,79 +504,359 @@ public abstract class Consistents {
     private final static Map<String, DiagramType> diagramMapping = getFakeEnumMapping(DiagramType.class);
     private final static Map<String, UmpleImportType> importMapping = getFakeEnumMapping(UmpleImportType.class);
 
+    /**
+     * Checks the parser is on {@code expected}.
+     */
+    private static void expect(final JsonParser jp, final JsonToken expected) throws JsonParseException {
+      if (jp.getCurrentToken() != expected) {
+        throw new JsonParseException("Expected " + expected + " but found " + jp.getCurrentToken(), 
+            jp.getCurrentLocation());
+      }
+    }
+    
+    /**
+     * Copies the current structure into a buffer so it can be read after fields that appear later in the document.
+     */
+    private static TokenBuffer buffer(final JsonParser jp) throws IOException {
+      final TokenBuffer buffer = new TokenBuffer(jp.getCodec(), false);
+      buffer.copyCurrentStructure(jp);
+      
+      return buffer;
+    }
+
+    /**
+     * Reads the document in a single pass over the tokens, no tree is built. The builders are created as soon as the 
+     * fields they require are read, this is before any nested content when written by 
+     * {@link ImportRepositorySetSerializer}. Nested content that appears before the fields it requires is buffered.
+     */
     @Override
     public ImportRepositorySet deserialize(JsonParser jp, DeserializationContext ctxt)
         throws IOException, JsonProcessingException {
+      expect(jp, JsonToken.START_OBJECT);
       
-      ObjectMapper mapper = (ObjectMapper) jp.getCodec();
-      ObjectNode root = (ObjectNode) mapper.readTree(jp);
-      
-      final String umplePath = root.findValue("umple").asText();
-      final String srcPath = root.findValue("src").asText();
-      
-      final ConsistentsBuilder bld = factory.get().create(Paths.get(umplePath), Paths.get(srcPath));
-      
-      final List<JsonNode> repos = root.findValues("repositories");
-      
-      repos.forEach(node -> {
-        /* {
-              "path" : "AtlanZooEcore",
-              "description" : "STRING",
-              "name" : "AtlanZooEcore",
-              "diagramType" : "class",
-              "successRate" : 0.5737704918032787,
-              "failRate" : 0.42622950819672134,
-              "files" : [ ... ]
-           } */
-        // read all the data points: 
-        final String description = node.findValue("description").asText();
-        final String name = node.findValue("name").asText();
-        final DiagramType diagramType = diagramMapping.get(node.findValue("diagramType").asText());
-        final License license = License.valueOf(node.findValue("license").asText(License.UNKNOWN.toString()));
+      String umplePath = null;
+      String srcPath = null;
+      Optional<TokenBuffer> bufferedRepos = Optional.empty();
+      ConsistentsBuilder bld = null;
+      
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = jp.getCurrentName();
+        jp.nextToken();
         
-        Optional<URL> remote = Optional.empty();
-        if (node.has("remote")) {
-          remote = Optional.of(Networks.newURL(node.findValue("remote").asText()));
+        switch (field) {
+        case "umple":
+          umplePath = jp.getText();
+          break;
+          
+        case "src":
+          srcPath = jp.getText();
+          break;
+          
+        case "repositories":
+          expect(jp, JsonToken.START_ARRAY);
+          
+          if (umplePath == null || srcPath == null) {
+            bufferedRepos = Optional.of(buffer(jp));
+          } else {
+            bld = factory.get().create(Paths.get(umplePath), Paths.get(srcPath));
+            readRepositories(jp, bld);
+          }
+          break;
+          
+        default:
+          // date and time are set when building
+          jp.skipChildren();
         }
+      }
+      
+      expect(jp, JsonToken.END_OBJECT);
+      
+      if (umplePath == null) {
+        throw new JsonParseException("Missing field: umple", jp.getCurrentLocation());
+      } else if (srcPath == null) {
+        throw new JsonParseException("Missing field: src", jp.getCurrentLocation());
+      }
+      
+      if (bld == null) {
+        bld = factory.get().create(Paths.get(umplePath), Paths.get(srcPath));
+      }
+      
+      if (bufferedRepos.isPresent()) {
+        try (JsonParser bjp = bufferedRepos.get().asParser()) {
+          bjp.nextToken();
+          readRepositories(bjp, bld);
+        }
+      }
+      
+      return bld.getRepositorySet();     
+    }
+    
+    /**
+     * Reads the {@code repositories} array, the parser must be on its {@link JsonToken#START_ARRAY}.
+     */
+    private void readRepositories(final JsonParser jp, final ConsistentsBuilder bld) throws IOException {
+      while (jp.nextToken() == JsonToken.START_OBJECT) {
+        readRepository(jp, bld);
+      }
+      
+      expect(jp, JsonToken.END_ARRAY);
+    }
+    
+    /**
+     * Reads a single repository, the parser must be on its {@link JsonToken#START_OBJECT}.
+     */
+    private void readRepository(final JsonParser jp, final ConsistentsBuilder bld) throws IOException {
+      /* {
+            "path" : "AtlanZooEcore",
+            "description" : "STRING",
+            "name" : "AtlanZooEcore",
+            "diagramType" : "class",
+            "successRate" : 0.5737704918032787,
+            "failRate" : 0.42622950819672134,
+            "files" : [ ... ]
+         } */
+      String description = null;
+      String name = null;
+      DiagramType diagramType = null;
+      License license = License.UNKNOWN;
+      Optional<URL> remote = Optional.empty();
+      Optional<TokenBuffer> bufferedFiles = Optional.empty();
+      ConsistentRepositoryBuilder rbld = null;
+      
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = jp.getCurrentName();
+        jp.nextToken();
         
-        final ConsistentRepositoryBuilder rbld = bld.withRepository(name, diagramType, description, remote, license);
-        final List<JsonNode> files = node.findValues("files");
-        
-        // work through the file nodes individually
-        files.forEach(fnode -> {
-          /*  {
-                "path" : "Mantis.ecore",
-                "type" : "ECore",
-                "lastState" : "Completed",
-                "successful" : true
-              }
-           */
-          final UmpleImportType type = importMapping.get(fnode.findValue("type").asText().toLowerCase());
-          final String path = fnode.findValue("path").asText();
-          final ImportFSM.State lastState = ImportFSM.State.valueOf(fnode.findValue("lastState").asText());
-          final boolean successful = fnode.findValue("successful").asBoolean(false);
+        switch (field) {
+        case "description":
+          description = jp.getText();
+          break;
           
-          Optional<ImportAttrib> attrib = Optional.empty();
-          if (fnode.has("attrib")) {
-            final JsonNode attr = fnode.findValue("attrib");
-            final ImportAttrib.Type attrType = ImportAttrib.Type.valueOf(attr.findValue("type").asText());
-            
-            attrib = Optional.of(new ImportAttrib(Networks.newURL(attr.findValue("url").asText()), attrType));
-          }
+        case "name":
+          name = jp.getText();
+          break;
+          
+        case "diagramType":
+          diagramType = diagramMapping.get(jp.getText());
+          break;
           
-          // add the file
-          if (!successful) {
-            final String message = fnode.findValue("message").asText();
-            rbld.addFailedFile(path, type, attrib, lastState, message);
+        case "license":
+          license = License.valueOf(jp.getText());
+          break;
+          
+        case "remote":
+          remote = Optional.of(Networks.newURL(jp.getText()));
+          break;
+          
+        case "files":
+          expect(jp, JsonToken.START_ARRAY);
+          
+          if (name == null || description == null || diagramType == null) {
+            // the license and remote are optional, so only the required fields are guaranteed to be read
+            bufferedFiles = Optional.of(buffer(jp));
           } else {
-            rbld.addSuccessFile(path, type, attrib);
+            rbld = bld.withRepository(name, diagramType, description, remote, license);
+            readFiles(jp, rbld);
           }
-        });
+          break;
+          
+        default:
+          // path is the name, the rates and stage summaries are recalculated
+          jp.skipChildren();
+        }
+      }
+      
+      expect(jp, JsonToken.END_OBJECT);
+      
+      if (rbld == null) {
+        rbld = bld.withRepository(name, diagramType, description, remote, license);
+      }
+      
+      if (bufferedFiles.isPresent()) {
+        try (JsonParser bjp = bufferedFiles.get().asParser()) {
+          bjp.nextToken();
+          readFiles(bjp, rbld);
+        }
+      }
+      
+      rbld.withCalculatedSuccessRate()
+        .withCalculatedStageSummaries();
+    }
+    
+    /**
+     * Reads the {@code files} array, the parser must be on its {@link JsonToken#START_ARRAY}.
+     */
+    private void readFiles(final JsonParser jp, final ConsistentRepositoryBuilder rbld) throws IOException {
+      while (jp.nextToken() == JsonToken.START_OBJECT) {
+        readFile(jp, rbld);
+      }
+      
+      expect(jp, JsonToken.END_ARRAY);
+    }
+    
+    /**
+     * Reads a single file, the parser must be on its {@link JsonToken#START_OBJECT}.
+     */
+    private void readFile(final JsonParser jp, final ConsistentRepositoryBuilder rbld) throws IOException {
+      /*  {
+            "path" : "Mantis.ecore",
+            "type" : "ECore",
+            "lastState" : "Completed",
+            "successful" : true
+          }
+       */
+      String path = null;
+      UmpleImportType type = null;
+      ImportFSM.State lastState = null;
+      boolean successful = false;
+      String message = "";
+      Optional<String> hash = Optional.empty();
+      Optional<ImportAttrib> attrib = Optional.empty();
+      Map<ImportFSM.State, StageMetrics> stages = ImmutableMap.of();
+      
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = jp.getCurrentName();
+        jp.nextToken();
         
-        rbld.withCalculatedSuccessRate();
-      });
+        switch (field) {
+        case "path":
+          path = jp.getText();
+          break;
+          
+        case "type":
+          type = importMapping.get(jp.getText().toLowerCase());
+          break;
+          
+        case "lastState":
+          lastState = ImportFSM.State.valueOf(jp.getText());
+          break;
+          
+        case "successful":
+          successful = jp.getValueAsBoolean(false);
+          break;
+          
+        case "message":
+          message = jp.getText();
+          break;
+          
+        case "hash":
+          hash = Optional.of(jp.getText());
+          break;
+          
+        case "attrib":
+          attrib = Optional.of(readAttrib(jp));
+          break;
+          
+        case "stages":
+          stages = readStages(jp);
+          break;
+          
+        default:
+          jp.skipChildren();
+        }
+      }
       
-      return bld.getRepositorySet();     
+      expect(jp, JsonToken.END_OBJECT);
+      
+      // add the file
+      if (!successful) {
+        rbld.addFailedFile(path, type, attrib, lastState, message, hash, stages);
+      } else {
+        rbld.addSuccessFile(path, type, attrib, hash, stages);
+      }
+    }
+    
+    /**
+     * Reads the {@code stages} of a file, the parser must be on its {@link JsonToken#START_OBJECT}.
+     */
+    private Map<ImportFSM.State, StageMetrics> readStages(final JsonParser jp) throws IOException {
+      expect(jp, JsonToken.START_OBJECT);
+      
+      final Map<ImportFSM.State, StageMetrics> stages = new EnumMap<>(ImportFSM.State.class);
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        final ImportFSM.State state = ImportFSM.State.valueOf(jp.getCurrentName());
+        jp.nextToken();
+        
+        stages.put(state, readStageMetrics(jp));
+      }
+      
+      expect(jp, JsonToken.END_OBJECT);
+      
+      return stages;
+    }
+    
+    /**
+     * Reads the {@link StageMetrics} of a single state, the parser must be on its {@link JsonToken#START_OBJECT}.
+     */
+    private StageMetrics readStageMetrics(final JsonParser jp) throws IOException {
+      expect(jp, JsonToken.START_OBJECT);
+      
+      long wallNanos = -1;
+      long cpuNanos = -1;
+      long inputBytes = -1;
+      long outputBytes = -1;
+      
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = jp.getCurrentName();
+        jp.nextToken();
+        
+        switch (field) {
+        case "wallNanos":
+          wallNanos = jp.getLongValue();
+          break;
+          
+        case "cpuNanos":
+          cpuNanos = jp.getLongValue();
+          break;
+          
+        case "inputBytes":
+          inputBytes = jp.getLongValue();
+          break;
+          
+        case "outputBytes":
+          outputBytes = jp.getLongValue();
+          break;
+          
+        default:
+          jp.skipChildren();
+        }
+      }
+      
+      expect(jp, JsonToken.END_OBJECT);
+      
+      return new StageMetrics(wallNanos, cpuNanos, inputBytes, outputBytes);
+    }
+    
+    /**
+     * Reads an attribution, the parser must be on its {@link JsonToken#START_OBJECT}.
+     */
+    private ImportAttrib readAttrib(final JsonParser jp) throws IOException {
+      expect(jp, JsonToken.START_OBJECT);
+      
+      String url = null;
+      ImportAttrib.Type attrType = null;
+      
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = jp.getCurrentName();
+        jp.nextToken();
+        
+        switch (field) {
+        case "url":
+          url = jp.getText();
+          break;
+          
+        case "type":
+          attrType = ImportAttrib.Type.valueOf(jp.getText());
+          break;
+          
+        default:
+          jp.skipChildren();
+        }
+      }
+      
+      expect(jp, JsonToken.END_OBJECT);
+      
+      return new ImportAttrib(Networks.newURL(url), attrType);
     }
     
   }
@@ -9,6 +9,7 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 import cruise.umple.umpr.core.ImportAttrib;
+import cruise.umple.umpr.core.StageMetrics;
 
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -56,6 +57,8 @@ public class ConsistentsModule extends AbstractModule {
     jsonModule.addSerializer(ImportRepository.class, new Consistents.ImportRepositorySerializer());
     jsonModule.addSerializer(ImportFile.class, new Consistents.ImportFileSerializer());
     jsonModule.addSerializer(ImportAttrib.class, new Consistents.AttribSerializer());
+    jsonModule.addSerializer(StageMetrics.class, new Consistents.StageMetricsSerializer());
+    jsonModule.addSerializer(StageSummary.class, new Consistents.StageSummarySerializer());
     jsonModule.addDeserializer(ImportRepositorySet.class, new Consistents.ImportRepositorySetDeserializer(getProvider(ConsistentsFactory.class)));
     
     final ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,125 @@
+package cruise.umple.umpr.core.consistent;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Index of the {@link ImportFile} results of a previous run, used to skip importing content that has not changed. A
+ * previous result is only reused if the source content hash matches and, for successful imports, the previously
+ * generated {@code .ump} file still exists.
+ *
+ * @since Oct 18, 2026
+ */
+public final class IncrementalIndex {
+
+  private static final Logger log = Logger.getLogger(IncrementalIndex.class.getName());
+
+  private final Path umpleFolder;
+  private final Map<String, ImportFile> files;
+
+  private IncrementalIndex(final Path umpleFolder, final Map<String, ImportFile> files) {
+    this.umpleFolder = umpleFolder;
+    this.files = files;
+  }
+
+  private static String key(final String repository, final String path) {
+    return repository + "/" + path;
+  }
+
+  /**
+   * Creates an index of a previous run.
+   *
+   * @param previous Results of the previous run
+   * @param umpleFolder Folder the previous run's {@code .ump} files were saved to
+   * @return Non-{@code null} index
+   *
+   * @since Oct 18, 2026
+   */
+  public static IncrementalIndex of(final ImportRepositorySet previous, final Path umpleFolder) {
+    checkNotNull(previous);
+    checkNotNull(umpleFolder);
+
+    // metadata merged from several runs or shards may list a file twice, the first entry wins
+    final Map<String, ImportFile> files = new HashMap<>();
+    previous.getRepositories().forEach(repo -> repo.getFiles().stream()
+        .filter(f -> !Strings.isNullOrEmpty(f.getHash()))
+        .forEach(f -> files.putIfAbsent(key(repo.getName(), f.getPath()), f)));
+
+    return new IncrementalIndex(umpleFolder, ImmutableMap.copyOf(files));
+  }
+
+  /**
+   * Loads the index from a previous run's metadata file, if it exists.
+   *
+   * @param metaFile Metadata written by the previous run
+   * @param umpleFolder Folder the previous run's {@code .ump} files were saved to
+   * @return {@link Optional#empty()} if {@code metaFile} does not exist or is not readable.
+   *
+   * @since Oct 18, 2026
+   */
+  public static Optional<IncrementalIndex> load(final Path metaFile, final Path umpleFolder) {
+    if (!Files.exists(metaFile)) {
+      log.info("No previous metadata, running a full import: " + metaFile);
+      return Optional.empty();
+    }
+
+    try (InputStream in = Files.newInputStream(metaFile)) {
+      return Optional.of(of(Consistents.fromJson(in), umpleFolder));
+    } catch (IOException | RuntimeException e) {
+      log.warning("Could not read previous metadata, running a full import: " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return Number of previous results indexed.
+   */
+  public int size() {
+    return files.size();
+  }
+
+  /**
+   * Gets the location of a previously generated {@code .ump} file.
+   *
+   * @param repository Repository name
+   * @param path Path of the {@link ImportFile}
+   * @return Non-{@code null} {@link Path}, the file may not exist.
+   */
+  public Path getUmpleFile(final String repository, final String path) {
+    return umpleFolder.resolve(repository).resolve(path + ".ump");
+  }
+
+  /**
+   * Finds the previous result of an import if the source content is unchanged.
+   *
+   * @param repository Repository name
+   * @param path Path of the {@link ImportFile}, i.e. the output file name
+   * @param hash Hash of the newly fetched content
+   * @return {@link Optional#empty()} if the content changed, was not imported before or the previous output is gone.
+   *
+   * @since Oct 18, 2026
+   */
+  public Optional<ImportFile> findUnchanged(final String repository, final String path, final String hash) {
+    final ImportFile previous = files.get(key(repository, path));
+    if (previous == null || !previous.getHash().equals(hash)) {
+      return Optional.empty();
+    }
+
+    if (previous.isSuccessful() && !Files.exists(getUmpleFile(repository, path))) {
+      return Optional.empty();
+    }
+
+    return Optional.of(previous);
+  }
+}
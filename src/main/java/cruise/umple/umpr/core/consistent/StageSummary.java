@@ -0,0 +1,146 @@
+package cruise.umple.umpr.core.consistent;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.ToLongFunction;
+
+import cruise.umple.umpr.core.ImportFSM;
+import cruise.umple.umpr.core.StageMetrics;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Distribution of the {@link StageMetrics} of one {@link ImportFSM.State} over all of the files of an
+ * {@link ImportRepository}.
+ *
+ * @since Oct 18, 2026
+ */
+public final class StageSummary {
+
+  /**
+   * Percentiles of a single metric, computed with the nearest-rank method. Unmeasured values ({@code -1}) are not
+   * included, if no values were measured every percentile is {@code -1}.
+   */
+  public static final class Percentiles {
+
+    private final long p50;
+    private final long p95;
+    private final long p99;
+    private final long max;
+
+    private Percentiles(final long p50, final long p95, final long p99, final long max) {
+      this.p50 = p50;
+      this.p95 = p95;
+      this.p99 = p99;
+      this.max = max;
+    }
+
+    static Percentiles of(final Collection<StageMetrics> metrics, final ToLongFunction<StageMetrics> metric) {
+      final long[] values = metrics.stream().mapToLong(metric).filter(v -> v >= 0).toArray();
+      if (values.length == 0) {
+        return new Percentiles(-1, -1, -1, -1);
+      }
+
+      Arrays.sort(values);
+      return new Percentiles(rank(values, 0.50), rank(values, 0.95), rank(values, 0.99), values[values.length - 1]);
+    }
+
+    private static long rank(final long[] sorted, final double percentile) {
+      final int idx = (int)Math.ceil(percentile * sorted.length) - 1;
+      return sorted[Math.max(0, idx)];
+    }
+
+    public long getP50() {
+      return p50;
+    }
+
+    public long getP95() {
+      return p95;
+    }
+
+    public long getP99() {
+      return p99;
+    }
+
+    public long getMax() {
+      return max;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("p50", p50)
+          .add("p95", p95)
+          .add("p99", p99)
+          .add("max", max)
+          .toString();
+    }
+  }
+
+  private final int count;
+  private final Percentiles wallNanos;
+  private final Percentiles cpuNanos;
+  private final Percentiles inputBytes;
+  private final Percentiles outputBytes;
+
+  private StageSummary(final int count, final Percentiles wallNanos, final Percentiles cpuNanos,
+      final Percentiles inputBytes, final Percentiles outputBytes) {
+    this.count = count;
+    this.wallNanos = wallNanos;
+    this.cpuNanos = cpuNanos;
+    this.inputBytes = inputBytes;
+    this.outputBytes = outputBytes;
+  }
+
+  /**
+   * Summarizes the metrics of one stage.
+   *
+   * @param metrics Metrics of the stage, one per file that ran it
+   * @return New non-{@code null} instance.
+   */
+  public static StageSummary of(final Collection<StageMetrics> metrics) {
+    checkNotNull(metrics);
+
+    return new StageSummary(metrics.size(),
+        Percentiles.of(metrics, StageMetrics::getWallNanos),
+        Percentiles.of(metrics, StageMetrics::getCpuNanos),
+        Percentiles.of(metrics, StageMetrics::getInputBytes),
+        Percentiles.of(metrics, StageMetrics::getOutputBytes));
+  }
+
+  /**
+   * @return Number of files that ran the stage.
+   */
+  public int getCount() {
+    return count;
+  }
+
+  public Percentiles getWallNanos() {
+    return wallNanos;
+  }
+
+  public Percentiles getCpuNanos() {
+    return cpuNanos;
+  }
+
+  public Percentiles getInputBytes() {
+    return inputBytes;
+  }
+
+  public Percentiles getOutputBytes() {
+    return outputBytes;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("count", count)
+        .add("wallNanos", wallNanos)
+        .add("cpuNanos", cpuNanos)
+        .add("inputBytes", inputBytes)
+        .add("outputBytes", outputBytes)
+        .toString();
+  }
+}
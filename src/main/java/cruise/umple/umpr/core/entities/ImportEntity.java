@@ -3,6 +3,8 @@
  */
 package cruise.umple.umpr.core.entities;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Optional;
@@ -13,6 +15,8 @@ import cruise.umple.umpr.core.ImportAttrib;
 import cruise.umple.umpr.core.License;
 import cruise.umple.umpr.core.Repository;
 
+import com.google.common.base.Charsets;
+
 /**
  * Entity to store information about importing. This includes the {@link Path} to store the output file, the 
  * {@link Repository} the Entity belongs to, and a method for getting an {@link InputStream} of the content. 
@@ -52,13 +56,27 @@ public interface ImportEntity extends Supplier<String> {
   public Optional<ImportAttrib> getAttribLoc();
   
   /**
-   * Create and open an {@link InputStream} instance of the imported entity's content. It is the callers responsibility
-   * to close the returned {@link InputStream}, i.e. {@link InputStream#close()}. 
-   * @return {@link InputStream} that is open for reading.
+   * Get the imported entity's content as a {@link String}, this holds the entire content in memory. Prefer 
+   * {@link #openStream()} for content that may be large.
+   * @return Non-{@code null} content.
    */
   @Override
   public abstract String get();
   
+  /**
+   * Create and open an {@link InputStream} instance of the imported entity's content. It is the callers responsibility
+   * to close the returned {@link InputStream}, i.e. {@link InputStream#close()}. The default implementation wraps 
+   * {@link #get()}, implementations should override this if they can stream content without holding all of it.
+   * 
+   * @return {@link InputStream} that is open for reading.
+   * @throws IOException if the content can not be opened.
+   * 
+   * @since Oct 18, 2026
+   */
+  public default InputStream openStream() throws IOException {
+    return new ByteArrayInputStream(get().getBytes(Charsets.UTF_8));
+  }
+  
   /**
    * Get a {@link License} if this entity is under a <em>different</em> license than the parent repository. This has a
    * default implementation which returns {@link Optional#empty()}.
@@ -12,6 +12,7 @@ import cruise.umple.compiler.UmpleImportType;
 import cruise.umple.umpr.core.ImportAttrib;
 import cruise.umple.umpr.core.Repository;
 
+import com.google.common.io.ByteSource;
 import com.google.inject.assistedinject.AssistedInject;
 import com.google.inject.name.Named;
 
@@ -59,6 +60,23 @@ public interface ImportEntityFactory {
   public ImportEntity createStringEntity(Repository repository, Path path, UmpleImportType fileType, 
       Supplier<String> content, Optional<ImportAttrib> attrib);
   
+  /**
+   * Creates an {@link ImportEntity} that streams the content of a {@link ByteSource} every time. 
+   * 
+   * @param repository The repository this entity is linked to
+   * @param path Relative path to store the entity after import
+   * @param content Content to import
+   * @param fileType File Type
+   * @param attrib The attribution information
+   * 
+   * @return Non-{@code null} instance
+   * 
+   * @since Oct 18, 2026
+   */
+  @Named("String")
+  public ImportEntity createStreamEntity(Repository repository, Path path, UmpleImportType fileType, 
+      ByteSource content, Optional<ImportAttrib> attrib);
+  
   /**
    * Creates an {@link ImportEntity} that returns the result of downloading the {@link URL} instance.
    * 
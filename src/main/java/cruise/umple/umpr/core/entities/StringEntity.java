@@ -2,6 +2,8 @@ package cruise.umple.umpr.core.entities;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -11,11 +13,15 @@ import cruise.umple.compiler.UmpleImportType;
 import cruise.umple.umpr.core.ImportAttrib;
 import cruise.umple.umpr.core.Repository;
 
+import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.io.ByteSource;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 
 /**
- * Convenience entity that stores a {@link Supplier} for {@link String} and accesses it quickly. 
+ * Convenience entity that stores a {@link Supplier} for {@link String} and accesses it quickly. If created from a
+ * {@link ByteSource}, the content is streamed from it instead. 
  * 
  * @author Kevin Brightwell <kevin.brightwell2@gmail.com>
  * @since Mar 2, 2015
@@ -26,6 +32,7 @@ final class StringEntity implements ImportEntity {
   private final Logger log;
   
   private final Supplier<String> content;
+  private final Optional<ByteSource> source;
   private final Repository repository;
   private final Path path;
   private final UmpleImportType fileType;
@@ -47,6 +54,7 @@ final class StringEntity implements ImportEntity {
     
     // params
     this.content = checkNotNull(content);
+    this.source = Optional.empty();
     this.repository = checkNotNull(repository);
     this.path = checkNotNull(path);
     this.fileType = checkNotNull(fileType);
@@ -71,6 +79,36 @@ final class StringEntity implements ImportEntity {
     // params
     checkNotNull(content);
     this.content = () -> content;
+    this.source = Optional.empty();
+    this.repository = checkNotNull(repository);
+    this.path = checkNotNull(path);
+    this.fileType = checkNotNull(fileType);
+    this.attrib = checkNotNull(attrib);
+  }
+  
+  /**
+   * Creates a new instance of StringEntity that streams its content from a {@link ByteSource}. 
+   * @param log
+   * @param repository
+   * @param path
+   * @param content
+   * @since Oct 18, 2026
+   */
+  @AssistedInject
+  StringEntity(Logger log, 
+      @Assisted UmpleImportType fileType, @Assisted Repository repository, 
+      @Assisted Path path, @Assisted ByteSource content, @Assisted Optional<ImportAttrib> attrib) {
+    this.log = log;
+    
+    // params
+    this.source = Optional.of(checkNotNull(content));
+    this.content = () -> {
+      try {
+        return content.asCharSource(Charsets.UTF_8).read();
+      } catch (IOException ioe) {
+        throw Throwables.propagate(ioe);
+      }
+    };
     this.repository = checkNotNull(repository);
     this.path = checkNotNull(path);
     this.fileType = checkNotNull(fileType);
@@ -92,6 +130,15 @@ final class StringEntity implements ImportEntity {
     return content.get();
   }
   
+  @Override
+  public InputStream openStream() throws IOException {
+    if (source.isPresent()) {
+      return source.get().openStream();
+    }
+    
+    return ImportEntity.super.openStream();
+  }
+  
   @Override
   public UmpleImportType getImportType() {
     return fileType;
@@ -3,6 +3,8 @@
  */
 package cruise.umple.umpr.core.entities;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.Optional;
@@ -17,7 +19,8 @@ import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 
 /**
- * Simple wrapper around {@link StringEntity} that allows for downloading a URL to a string. 
+ * Simple wrapper around {@link StringEntity} that allows for downloading a URL to a string. The content is streamed
+ * by {@link #openStream()}, so it is never held in memory unless {@link #get()} is used. 
  * @author Kevin Brightwell <kevin.brightwell2@gmail.com>
  * @since Mar 2, 2015
  */
@@ -34,8 +37,8 @@ final class URLEntity implements ImportEntity {
       @Assisted Path path, @Assisted URL url, @Assisted Optional<ImportAttrib> attrib) {
     this.log = log;
     
-    this.wrappedEntity = factory.createStringEntity(repository, path.subpath(path.getNameCount()-1, path.getNameCount()), 
-        fileType, Networks.newURLDownloader(url), attrib);
+    this.wrappedEntity = factory.createStreamEntity(repository, path.subpath(path.getNameCount()-1, path.getNameCount()), 
+        fileType, Networks.newURLSource(url, Networks.getStatistics(repository.getName())), attrib);
   }
   
 
@@ -74,6 +77,11 @@ final class URLEntity implements ImportEntity {
     return wrappedEntity.get();
   }
   
+  @Override
+  public InputStream openStream() throws IOException {
+    return wrappedEntity.openStream();
+  }
+  
   @Override
   public UmpleImportType getImportType() {
     return wrappedEntity.getImportType();
@@ -4,7 +4,6 @@ import java.net.URL;
 import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import cruise.umple.compiler.UmpleImportType;
@@ -80,9 +79,10 @@ class AtlanZooRepository extends SimpleRepository implements Repository {
       Seq<Element> links = Seq.seq(doc.get().select("#bodyContent ul a.external.text"));
       Seq<Element> bases = Seq.seq(doc.get().select("#bodyContent a[name]"));
       
-      Stream<Tuple2<Element, Element>> top = Seq.zip(bases, links).collect(Collectors.toList()).stream();
+      // entities are created as they are consumed, the first one is available as soon as the page is parsed
+      Stream<Tuple2<Element, Element>> top = Seq.zip(bases, links);
       
-      return top.parallel().map(t -> {
+      return top.map(t -> {
         // (AttribElement, DownloadElement)
         final ImportAttrib attrib = ImportAttrib.ref(REPO_URL + "#" + t.v1().attr("name"));
         final URL url = Networks.newURL(t.v2().attr("href"));
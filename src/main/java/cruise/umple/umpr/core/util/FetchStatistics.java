@@ -0,0 +1,84 @@
+package cruise.umple.umpr.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Thread-safe counters of the responses received while downloading content for a single repository through
+ * {@link Networks}. These are used to measure how effective HTTP caching is.
+ *
+ * @since Oct 18, 2026
+ */
+public final class FetchStatistics {
+
+  private final String name;
+
+  private final AtomicLong ok = new AtomicLong();
+  private final AtomicLong notModified = new AtomicLong();
+  private final AtomicLong errors = new AtomicLong();
+  private final AtomicLong bytes = new AtomicLong();
+
+  FetchStatistics(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return Name the statistics are kept for, usually the repository name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  void recordOk(final long length) {
+    ok.incrementAndGet();
+    bytes.addAndGet(length);
+  }
+
+  void recordNotModified() {
+    notModified.incrementAndGet();
+  }
+
+  void recordError() {
+    errors.incrementAndGet();
+  }
+
+  /**
+   * @return Number of {@code 200 OK} responses, i.e. full downloads.
+   */
+  public long getOk() {
+    return ok.get();
+  }
+
+  /**
+   * @return Number of {@code 304 Not Modified} responses, i.e. downloads avoided by caching.
+   */
+  public long getNotModified() {
+    return notModified.get();
+  }
+
+  /**
+   * @return Number of failed requests, including unexpected response codes.
+   */
+  public long getErrors() {
+    return errors.get();
+  }
+
+  /**
+   * @return Number of content bytes downloaded.
+   */
+  public long getBytes() {
+    return bytes.get();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("name", name)
+        .add("ok", getOk())
+        .add("notModified", getNotModified())
+        .add("errors", getErrors())
+        .add("bytes", getBytes())
+        .toString();
+  }
+}
@@ -0,0 +1,147 @@
+package cruise.umple.umpr.core.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URL;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Emits custom Java Flight Recorder events when the running JDK supports them, thus imports and fetches show up by
+ * repository, path and host in JDK Mission Control instead of as anonymous pool threads. The project is built against
+ * Java 8 where JFR is not guaranteed, so the events are only loaded if {@code jdk.jfr.Event} exists and every method
+ * falls back to a no-op otherwise.
+ *
+ * <p>
+ * Each event is timed from its {@code begin*} call until its {@code end} call, thus the duration of an event is the
+ * latency of the work it records. Events are only written while a recording with the {@code cruise.umple.umpr}
+ * events enabled is running.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public abstract class FlightEvents {
+
+  private static final Logger log = Logger.getLogger(FlightEvents.class.getName());
+
+  private FlightEvents() {
+  }
+
+  /**
+   * An HTTP request in progress.
+   */
+  @FunctionalInterface
+  public interface Fetch {
+
+    /**
+     * Ends the request.
+     * @param status Final HTTP response code, {@code -1} if no response was received
+     * @param bytes Number of body bytes received, {@code -1} if unknown
+     */
+    void end(int status, long bytes);
+  }
+
+  /**
+   * A state transition of an import in progress, i.e. running the work of the states it moves through.
+   */
+  @FunctionalInterface
+  public interface Stage {
+
+    /**
+     * Ends the transition.
+     * @param to Name of the state the import moved to
+     * @param successful {@code true} if the import has not failed
+     */
+    void end(String to, boolean successful);
+  }
+
+  /**
+   * A document load in progress.
+   */
+  @FunctionalInterface
+  public interface Load {
+
+    /**
+     * Ends the load.
+     * @param loaded {@code true} if the document was loaded and parsed
+     */
+    void end(boolean loaded);
+  }
+
+  /**
+   * Creates the events, implemented by {@link JfrFlightEvents}.
+   */
+  interface Sink {
+
+    Fetch beginFetch(String method, String url);
+
+    Stage beginStage(String repository, String path, String importType, String from);
+
+    Load beginLoad(String url);
+  }
+
+  private static final Fetch NO_FETCH = (status, bytes) -> { };
+  private static final Stage NO_STAGE = (to, successful) -> { };
+  private static final Load NO_LOAD = loaded -> { };
+
+  private static final Optional<Sink> sink = loadSink();
+
+  private static Optional<Sink> loadSink() {
+    try {
+      Class.forName("jdk.jfr.Event");
+
+      // only load the events once we know the JDK has them
+      return Optional.of((Sink)Class.forName(FlightEvents.class.getPackage().getName() + ".JfrFlightEvents")
+          .newInstance());
+    } catch (ClassNotFoundException cnfe) {
+      // older JDK, no flight recorder
+      return Optional.empty();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      log.fine("Flight recorder events are not available: " + e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Checks if the running JDK can emit the events.
+   * @return {@code true} if events are emitted while a recording is running.
+   */
+  public static boolean isSupported() {
+    return sink.isPresent();
+  }
+
+  /**
+   * Begins an HTTP request.
+   * @param method Request method, e.g. {@code GET}
+   * @param url Requested location
+   * @return Non-{@code null} {@link Fetch}, its {@link Fetch#end(int, long)} must be called once.
+   */
+  public static Fetch beginFetch(final String method, final URL url) {
+    checkNotNull(method);
+    checkNotNull(url);
+
+    return sink.isPresent() ? sink.get().beginFetch(method, url.toString()) : NO_FETCH;
+  }
+
+  /**
+   * Begins a state transition of an import.
+   * @param repository Name of the repository the import belongs to
+   * @param path Path of the imported file
+   * @param importType Name of the import type
+   * @param from Name of the state being left
+   * @return Non-{@code null} {@link Stage}, its {@link Stage#end(String, boolean)} must be called once.
+   */
+  public static Stage beginStage(final String repository, final String path, final String importType,
+      final String from) {
+    return sink.isPresent() ? sink.get().beginStage(repository, path, importType, from) : NO_STAGE;
+  }
+
+  /**
+   * Begins loading a document.
+   * @param url Location of the document
+   * @return Non-{@code null} {@link Load}, its {@link Load#end(boolean)} must be called once.
+   */
+  public static Load beginLoad(final String url) {
+    return sink.isPresent() ? sink.get().beginLoad(url) : NO_LOAD;
+  }
+}
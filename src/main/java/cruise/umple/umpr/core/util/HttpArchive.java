@@ -0,0 +1,296 @@
+package cruise.umple.umpr.core.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Archive of HTTP exchanges used to run imports without a network. While {@link Mode#RECORD recording}, every
+ * response received by {@link Networks} and the {@link cruise.umple.umpr.core.DocumentFactory} is written to a zip
+ * file; while {@link Mode#REPLAY replaying}, the responses are served from that file and no request is sent, thus runs
+ * are repeatable and independent of the network.
+ *
+ * <p>
+ * Every exchange is a zip entry named by the SHA-256 hash of its method and {@link URL}, the method, {@link URL} and
+ * status code of all exchanges are listed in the {@value #INDEX} entry. Only the first response for an exchange is
+ * recorded. The archive is written to a temporary file and only moved into place by {@link #commit()}, a recording
+ * that is {@link #close() closed} without being committed, e.g. because the run failed, never replaces a previous
+ * archive.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public class HttpArchive implements Closeable {
+
+  /**
+   * Whether an archive is written or read.
+   */
+  public enum Mode {
+    RECORD,
+    REPLAY
+  }
+
+  /**
+   * A recorded response.
+   */
+  public static final class Exchange {
+
+    private final int status;
+    private final ByteSource body;
+
+    private Exchange(final int status, final ByteSource body) {
+      this.status = status;
+      this.body = body;
+    }
+
+    /**
+     * @return The HTTP status code, {@code -1} if the request failed without a response.
+     */
+    public int getStatus() {
+      return status;
+    }
+
+    /**
+     * @return The response body, empty for {@code HEAD} requests.
+     */
+    public ByteSource getBody() {
+      return body;
+    }
+  }
+
+  static final String INDEX = "index.properties";
+
+  private static final String INDEX_METHOD = ".method";
+  private static final String INDEX_URL = ".url";
+  private static final String INDEX_STATUS = ".status";
+
+  private final Logger log = Logger.getLogger(HttpArchive.class.getName());
+
+  private final Mode mode;
+  private final Path file;
+
+  // recording
+  private final Optional<Path> tmpFile;
+  private final Optional<ZipOutputStream> out;
+  private final Properties index = new Properties();
+  private final Set<String> recorded = new HashSet<>();
+  private boolean committed = false;
+
+  // replaying
+  private final Optional<ZipFile> zip;
+
+  private HttpArchive(final Mode mode, final Path file) throws IOException {
+    this.mode = mode;
+    this.file = file.toAbsolutePath();
+
+    if (mode == Mode.RECORD) {
+      Files.createDirectories(this.file.getParent());
+
+      this.tmpFile = Optional.of(Files.createTempFile(this.file.getParent(), this.file.getFileName().toString(),
+          ".tmp"));
+      this.out = Optional.of(new ZipOutputStream(Files.newOutputStream(tmpFile.get())));
+      this.zip = Optional.empty();
+    } else {
+      this.tmpFile = Optional.empty();
+      this.out = Optional.empty();
+      this.zip = Optional.of(new ZipFile(this.file.toFile()));
+
+      final ZipEntry entry = zip.get().getEntry(INDEX);
+      if (entry == null) {
+        zip.get().close();
+        throw new IOException("Not an HTTP archive, missing " + INDEX + ": " + file);
+      }
+
+      try (InputStream in = zip.get().getInputStream(entry)) {
+        index.load(in);
+      }
+    }
+
+    log.config("Opened HTTP archive for " + mode + ": " + this.file);
+  }
+
+  /**
+   * Starts recording a new archive, replacing {@code file} once {@link #commit() committed}.
+   *
+   * @param file Archive to write
+   * @return New recording archive.
+   * @throws IOException if the archive can not be created.
+   */
+  public static HttpArchive record(final Path file) throws IOException {
+    return new HttpArchive(Mode.RECORD, checkNotNull(file));
+  }
+
+  /**
+   * Opens a recorded archive for replaying.
+   *
+   * @param file Archive written by {@link #record(Path)}
+   * @return New replaying archive.
+   * @throws IOException if the archive does not exist or is not an archive.
+   */
+  public static HttpArchive replay(final Path file) throws IOException {
+    return new HttpArchive(Mode.REPLAY, checkNotNull(file));
+  }
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * @return {@code true} if responses must be served from this archive rather than the network.
+   */
+  public boolean isReplaying() {
+    return mode == Mode.REPLAY;
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  private static String key(final String method, final URL url) {
+    return Hashing.sha256().hashString(method + " " + url, Charsets.UTF_8).toString();
+  }
+
+  /**
+   * Gets a recorded response.
+   *
+   * @param method HTTP method of the request
+   * @param url {@link URL} requested
+   * @return {@link Optional#empty()} if the exchange was not recorded.
+   */
+  public Optional<Exchange> get(final String method, final URL url) {
+    checkState(mode == Mode.REPLAY, "Archive is not replaying.");
+    checkNotNull(method);
+    checkNotNull(url);
+
+    final String key = key(method, url);
+    final String status = index.getProperty(key + INDEX_STATUS);
+    final ZipEntry entry = zip.get().getEntry(key);
+    if (status == null || entry == null) {
+      log.fine("Not in HTTP archive: " + method + " " + url);
+      return Optional.empty();
+    }
+
+    return Optional.of(new Exchange(Integer.parseInt(status), new ByteSource() {
+      @Override
+      public InputStream openStream() throws IOException {
+        return zip.get().getInputStream(entry);
+      }
+    }));
+  }
+
+  /**
+   * Records a response.
+   *
+   * @param method HTTP method of the request
+   * @param url {@link URL} requested
+   * @param status HTTP status code, {@code -1} if the request failed without a response
+   * @param body Response body
+   * @throws IOException if the archive can not be written.
+   */
+  public void put(final String method, final URL url, final int status, final byte[] body) throws IOException {
+    put(method, url, status, new ByteArrayInputStream(checkNotNull(body)));
+  }
+
+  /**
+   * Records a response while reading it from a stream, the stream is read to its end but not closed.
+   *
+   * @param method HTTP method of the request
+   * @param url {@link URL} requested
+   * @param status HTTP status code, {@code -1} if the request failed without a response
+   * @param body Response body
+   * @throws IOException if the archive can not be written or {@code body} can not be read.
+   */
+  public synchronized void put(final String method, final URL url, final int status, final InputStream body)
+      throws IOException {
+    checkState(mode == Mode.RECORD, "Archive is not recording.");
+    checkNotNull(method);
+    checkNotNull(url);
+    checkNotNull(body);
+
+    final String key = key(method, url);
+    if (!recorded.add(key)) {
+      return;
+    }
+
+    out.get().putNextEntry(new ZipEntry(key));
+    ByteStreams.copy(body, out.get());
+    out.get().closeEntry();
+
+    index.setProperty(key + INDEX_METHOD, method);
+    index.setProperty(key + INDEX_URL, url.toString());
+    index.setProperty(key + INDEX_STATUS, Integer.toString(status));
+  }
+
+  /**
+   * @return The number of exchanges in the archive.
+   */
+  public synchronized int size() {
+    return mode == Mode.RECORD ? recorded.size() : zip.get().size() - 1;
+  }
+
+  /**
+   * Finishes a recording and moves it into place, nothing is recorded afterwards. Does nothing while replaying.
+   *
+   * @throws IOException if the archive can not be written or moved into place.
+   */
+  public synchronized void commit() throws IOException {
+    if (mode == Mode.REPLAY) {
+      return;
+    }
+
+    checkState(!committed, "Archive is already committed.");
+
+    final ZipOutputStream zout = out.get();
+    zout.putNextEntry(new ZipEntry(INDEX));
+    index.store(zout, null);
+    zout.closeEntry();
+    zout.close();
+
+    Files.move(tmpFile.get(), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    committed = true;
+    log.info("Recorded " + recorded.size() + " HTTP exchanges to: " + file);
+  }
+
+  /**
+   * Closes the archive, a recording that was not {@link #commit() committed} is discarded.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (mode == Mode.REPLAY) {
+      zip.get().close();
+      return;
+    }
+
+    if (committed) {
+      return;
+    }
+
+    try {
+      out.get().close();
+      log.warning("Discarded HTTP recording of " + recorded.size() + " exchanges, it was not committed: " + file);
+    } finally {
+      Files.deleteIfExists(tmpFile.get());
+    }
+  }
+}
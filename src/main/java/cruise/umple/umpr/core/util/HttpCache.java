@@ -0,0 +1,328 @@
+package cruise.umple.umpr.core.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.hash.Hashing;
+
+/**
+ * Persistent, on-disk cache of HTTP responses used by {@link Networks} so repeated runs only transfer content that
+ * changed. Every {@link URL} is stored as two files named by the SHA-256 hash of the {@link URL}: a {@code .body} file
+ * with the response content and a {@code .meta} file with the validators ({@code Last-Modified} and {@code ETag}).
+ *
+ * <p>
+ * The cache is bounded by size, when it grows past its maximum the least recently used entries are evicted. The
+ * modification time of a {@code .body} file is its last access time.
+ * </p>
+ *
+ * @since Oct 18, 2026
+ */
+public class HttpCache {
+
+  private static final String BODY_EXT = ".body";
+  private static final String META_EXT = ".meta";
+
+  private static final String META_URL = "url";
+  private static final String META_LAST_MODIFIED = "lastModified";
+  private static final String META_ETAG = "etag";
+
+  /**
+   * A cached response.
+   */
+  public static final class Entry {
+
+    private final URL url;
+    private final long lastModified;
+    private final Optional<String> etag;
+    private final Path body;
+
+    private Entry(final URL url, final long lastModified, final Optional<String> etag, final Path body) {
+      this.url = url;
+      this.lastModified = lastModified;
+      this.etag = etag;
+      this.body = body;
+    }
+
+    /**
+     * @return The {@link URL} that was cached.
+     */
+    public URL getUrl() {
+      return url;
+    }
+
+    /**
+     * @return The value of the {@code Last-Modified} header in milliseconds, or {@code 0} if it was not sent.
+     */
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    /**
+     * @return The value of the {@code ETag} header, if it was sent.
+     */
+    public Optional<String> getETag() {
+      return etag;
+    }
+
+    /**
+     * @return {@link Path} to the cached content.
+     */
+    public Path getBody() {
+      return body;
+    }
+
+    /**
+     * Reads the cached content.
+     * @return Content as a byte array.
+     * @throws IOException if the cached content was removed or can not be read.
+     */
+    public byte[] read() throws IOException {
+      return Files.readAllBytes(body);
+    }
+  }
+
+  private final Logger log = Logger.getLogger(HttpCache.class.getName());
+
+  private final Path directory;
+  private final long maxBytes;
+
+  private final AtomicLong size = new AtomicLong();
+
+  /**
+   * Opens a cache in {@code directory}, creating it if it does not exist.
+   *
+   * @param directory Directory to store the cache in
+   * @param maxBytes Maximum number of bytes of content to keep, must be positive
+   *
+   * @since Oct 18, 2026
+   */
+  public HttpCache(final Path directory, final long maxBytes) {
+    checkArgument(maxBytes > 0, "maxBytes must be positive: %s", maxBytes);
+
+    this.directory = checkNotNull(directory);
+    this.maxBytes = maxBytes;
+
+    try {
+      Files.createDirectories(directory);
+
+      for (Path body : listBodies()) {
+        size.addAndGet(Files.size(body));
+      }
+    } catch (IOException ioe) {
+      throw Throwables.propagate(ioe);
+    }
+
+    log.config("Opened HTTP cache: " + directory + " (" + size.get() + "/" + maxBytes + " bytes)");
+  }
+
+  /**
+   * @return The directory of the cache.
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * @return The number of bytes of content currently cached.
+   */
+  public long size() {
+    return size.get();
+  }
+
+  private String key(final URL url) {
+    return Hashing.sha256().hashString(url.toString(), Charsets.UTF_8).toString();
+  }
+
+  private List<Path> listBodies() throws IOException {
+    final List<Path> out = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + BODY_EXT)) {
+      stream.forEach(out::add);
+    }
+
+    return out;
+  }
+
+  /**
+   * Gets a cached response and marks it as recently used.
+   *
+   * @param url {@link URL} requested
+   * @return {@link Optional#empty()} if the {@link URL} is not cached.
+   *
+   * @since Oct 18, 2026
+   */
+  public Optional<Entry> get(final URL url) {
+    checkNotNull(url);
+
+    final String key = key(url);
+    final Path body = directory.resolve(key + BODY_EXT);
+    final Path meta = directory.resolve(key + META_EXT);
+
+    if (!Files.exists(body) || !Files.exists(meta)) {
+      return Optional.empty();
+    }
+
+    final Properties props = new Properties();
+    try (InputStream in = Files.newInputStream(meta)) {
+      props.load(in);
+
+      Files.setLastModifiedTime(body, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException ioe) {
+      log.warning("Could not read cache entry for " + url + ": " + ioe.getMessage());
+      return Optional.empty();
+    }
+
+    return Optional.of(new Entry(url, Long.parseLong(props.getProperty(META_LAST_MODIFIED, "0")),
+        Optional.ofNullable(props.getProperty(META_ETAG)), body));
+  }
+
+  /**
+   * Stores a response in the cache, replacing any previous response for the {@link URL}. Entries are written to a
+   * temporary file and moved into place so a crash never leaves a partial entry.
+   *
+   * @param url {@link URL} requested
+   * @param lastModified Value of the {@code Last-Modified} header, {@code 0} if not present
+   * @param etag Value of the {@code ETag} header
+   * @param content Response body
+   * @return The new {@link Entry}.
+   *
+   * @throws IOException if the entry could not be written.
+   * @since Oct 18, 2026
+   */
+  public Entry put(final URL url, final long lastModified, final Optional<String> etag, final byte[] content)
+      throws IOException {
+    checkNotNull(content);
+
+    return put(url, lastModified, etag, new ByteArrayInputStream(content));
+  }
+
+  /**
+   * Stores a response in the cache while reading it from a stream, thus the content is never held in memory. The
+   * stream is read to its end but not closed. The new entry is never evicted by this call, even if it alone is larger
+   * than the maximum size of the cache.
+   *
+   * @param url {@link URL} requested
+   * @param lastModified Value of the {@code Last-Modified} header, {@code 0} if not present
+   * @param etag Value of the {@code ETag} header
+   * @param content Response body
+   * @return The new {@link Entry}.
+   *
+   * @throws IOException if the entry could not be written or {@code content} could not be read.
+   * @since Oct 18, 2026
+   */
+  public Entry put(final URL url, final long lastModified, final Optional<String> etag, final InputStream content)
+      throws IOException {
+    checkNotNull(url);
+    checkNotNull(etag);
+    checkNotNull(content);
+
+    final String key = key(url);
+    final Path body = directory.resolve(key + BODY_EXT);
+    final Path meta = directory.resolve(key + META_EXT);
+
+    final Properties props = new Properties();
+    props.setProperty(META_URL, url.toString());
+    props.setProperty(META_LAST_MODIFIED, Long.toString(lastModified));
+    etag.ifPresent(t -> props.setProperty(META_ETAG, t));
+
+    final Path tmpBody = Files.createTempFile(directory, key, ".tmp");
+    final Path tmpMeta = Files.createTempFile(directory, key, ".tmp");
+    try {
+      Files.copy(content, tmpBody, StandardCopyOption.REPLACE_EXISTING);
+      try (OutputStream out = Files.newOutputStream(tmpMeta)) {
+        props.store(out, null);
+      }
+
+      synchronized (this) {
+        final long previous = Files.exists(body) ? Files.size(body) : 0;
+
+        Files.move(tmpBody, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(tmpMeta, meta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        size.addAndGet(Files.size(body) - previous);
+      }
+    } finally {
+      Files.deleteIfExists(tmpBody);
+      Files.deleteIfExists(tmpMeta);
+    }
+
+    evict(Optional.of(body));
+
+    return new Entry(url, lastModified, etag, body);
+  }
+
+  /**
+   * Removes the least recently used entries until the cache is within its maximum size.
+   *
+   * @since Oct 18, 2026
+   */
+  public void evict() {
+    evict(Optional.empty());
+  }
+
+  /**
+   * Removes the least recently used entries, except {@code keep}, until the cache is within its maximum size.
+   */
+  private synchronized void evict(final Optional<Path> keep) {
+    if (size.get() <= maxBytes) {
+      return;
+    }
+
+    try {
+      // get() touches bodies without the lock, sorting on live times could see them change mid-sort
+      final List<Path> bodies = listBodies();
+      final Map<Path, FileTime> lastUsed = new HashMap<>();
+      for (Path body : bodies) {
+        try {
+          lastUsed.put(body, Files.getLastModifiedTime(body));
+        } catch (IOException ioe) {
+          lastUsed.put(body, FileTime.fromMillis(0));
+        }
+      }
+      bodies.sort(Comparator.comparing(lastUsed::get));
+
+      for (Path body : bodies) {
+        if (size.get() <= maxBytes) {
+          break;
+        }
+
+        if (keep.map(body::equals).orElse(false)) {
+          continue;
+        }
+
+        final String name = body.getFileName().toString();
+        final Path meta = directory.resolve(name.substring(0, name.length() - BODY_EXT.length()) + META_EXT);
+
+        final long bytes = Files.size(body);
+        Files.deleteIfExists(meta);
+        Files.deleteIfExists(body);
+        size.addAndGet(-bytes);
+
+        log.finer("Evicted cache entry: " + body);
+      }
+    } catch (IOException ioe) {
+      log.warning("Failed to evict from HTTP cache: " + ioe.getMessage());
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package cruise.umple.umpr.core.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder implementation of {@link FlightEvents}, this class must only be loaded if {@code jdk.jfr} is
+ * available.
+ *
+ * @since Oct 18, 2026
+ */
+final class JfrFlightEvents implements FlightEvents.Sink {
+
+  private static final String CATEGORY = "UmpleRepository";
+
+  @Name("cruise.umple.umpr.Fetch")
+  @Label("HTTP Fetch")
+  @Description("HTTP request made while discovering or fetching content")
+  @Category({ CATEGORY, "Network" })
+  static final class FetchEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("URL")
+    String url;
+
+    @Label("Status")
+    @Description("Final HTTP response code, -1 if no response was received")
+    int status;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+  }
+
+  @Name("cruise.umple.umpr.Stage")
+  @Label("Import Stage")
+  @Description("State transition of an import, including the work of every state it moved through")
+  @Category({ CATEGORY, "Import" })
+  static final class StageEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Path")
+    String path;
+
+    @Label("Import Type")
+    String importType;
+
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+
+    @Label("Successful")
+    boolean successful;
+  }
+
+  @Name("cruise.umple.umpr.DocumentLoad")
+  @Label("Document Load")
+  @Description("HTML document fetched and parsed by a DocumentFactory")
+  @Category({ CATEGORY, "Network" })
+  static final class LoadEvent extends Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Loaded")
+    boolean loaded;
+  }
+
+  @Override
+  public FlightEvents.Fetch beginFetch(final String method, final String url) {
+    final FetchEvent event = new FetchEvent();
+    if (!event.isEnabled()) {
+      return (status, bytes) -> { };
+    }
+
+    event.begin();
+    return (status, bytes) -> {
+      event.end();
+      if (event.shouldCommit()) {
+        event.method = method;
+        event.url = url;
+        event.status = status;
+        event.bytes = bytes;
+        event.commit();
+      }
+    };
+  }
+
+  @Override
+  public FlightEvents.Stage beginStage(final String repository, final String path, final String importType,
+      final String from) {
+    final StageEvent event = new StageEvent();
+    if (!event.isEnabled()) {
+      return (to, successful) -> { };
+    }
+
+    event.begin();
+    return (to, successful) -> {
+      event.end();
+      if (event.shouldCommit()) {
+        event.repository = repository;
+        event.path = path;
+        event.importType = importType;
+        event.from = from;
+        event.to = to;
+        event.successful = successful;
+        event.commit();
+      }
+    };
+  }
+
+  @Override
+  public FlightEvents.Load beginLoad(final String url) {
+    final LoadEvent event = new LoadEvent();
+    if (!event.isEnabled()) {
+      return loaded -> { };
+    }
+
+    event.begin();
+    return loaded -> {
+      event.end();
+      if (event.shouldCommit()) {
+        event.url = url;
+        event.loaded = loaded;
+        event.commit();
+      }
+    };
+  }
+}
@@ -2,18 +2,31 @@ package cruise.umple.umpr.core.util;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
 
 /**
  * Utility methods for networking
@@ -21,6 +34,98 @@ import com.google.common.base.Throwables;
 public abstract class Networks {
     private Networks() {
     }
+    
+    private static final Logger log = Logger.getLogger(Networks.class.getName());
+    
+    private static volatile Optional<HttpCache> cache = Optional.empty();
+    
+    /**
+     * Sets the persistent {@link HttpCache} used by the {@link Supplier} instances from 
+     * {@link #newURLDownloader(URL)}. 
+     * 
+     * @param httpCache {@link Optional#empty()} to disable the persistent cache. 
+     * 
+     * @since Oct 18, 2026
+     */
+    public static void setCache(final Optional<HttpCache> httpCache) {
+      cache = checkNotNull(httpCache);
+    }
+    
+    /**
+     * Gets the persistent {@link HttpCache}, if one is set. 
+     * @return {@link Optional#empty()} if no cache is in use.
+     * 
+     * @since Oct 18, 2026
+     */
+    public static Optional<HttpCache> getCache() {
+      return cache;
+    }
+
+    private static volatile Optional<HttpArchive> archive = Optional.empty();
+    
+    /**
+     * Sets the {@link HttpArchive} that responses are recorded to or replayed from. While replaying, no request is 
+     * sent and the persistent {@link HttpCache} is not used.
+     * 
+     * @param httpArchive {@link Optional#empty()} to use the network without recording.
+     * 
+     * @since Oct 18, 2026
+     */
+    public static void setArchive(final Optional<HttpArchive> httpArchive) {
+      archive = checkNotNull(httpArchive);
+    }
+    
+    /**
+     * Gets the {@link HttpArchive}, if one is set. 
+     * @return {@link Optional#empty()} if no archive is in use.
+     * 
+     * @since Oct 18, 2026
+     */
+    public static Optional<HttpArchive> getArchive() {
+      return archive;
+    }
+    
+    /**
+     * @return The {@link HttpArchive} to serve responses from, if one is replaying.
+     */
+    private static Optional<HttpArchive> replaying() {
+      return archive.filter(HttpArchive::isReplaying);
+    }
+    
+    /**
+     * Records a response in the {@link HttpArchive}, if one is recording. Failing to record is not fatal.
+     */
+    private static void record(final String method, final URL url, final int status, final InputStream body) {
+      final Optional<HttpArchive> recording = archive.filter(a -> !a.isReplaying());
+      if (!recording.isPresent()) {
+        return;
+      }
+      
+      try {
+        recording.get().put(method, url, status, body);
+      } catch (IOException ioe) {
+        log.warning("Could not record " + method + " " + url + ": " + ioe.getMessage());
+      }
+    }
+    
+    private static void record(final String method, final URL url, final int status, final byte[] body) {
+      record(method, url, status, new ByteArrayInputStream(body));
+    }
+    
+    /**
+     * Gets the body of a successful response from the replaying {@link HttpArchive}.
+     * @throws IOException if the exchange was not recorded or was not successful.
+     */
+    private static ByteSource replay(final HttpArchive replaying, final URL url) throws IOException {
+      final Optional<HttpArchive.Exchange> exchange = replaying.get("GET", url);
+      if (!exchange.isPresent()) {
+        throw new IOException("Not in HTTP archive: " + url);
+      } else if (exchange.get().getStatus() != HttpURLConnection.HTTP_OK) {
+        throw new IOException("Recorded response " + exchange.get().getStatus() + " for " + url);
+      }
+      
+      return exchange.get().getBody();
+    }
 
     /**
      * Pings a HTTP URL. This effectively sends a HEAD request and returns <code>true</code> if the response code is in
@@ -30,7 +135,8 @@ public abstract class Networks {
      * @param timeout The timeout in millis for both the connection timeout and the response read timeout. Note that
      *                the total timeout is effectively two times the given timeout.
      * @return <code>true</code> if the given HTTP URL has returned response code 200-399 on a HEAD request within the
-     * given timeout, otherwise <code>false</code>.
+     * given timeout, otherwise <code>false</code>. While replaying an {@link HttpArchive}, the recorded response is
+     * used, a {@link URL} that was only fetched is reachable if it was fetched successfully.
      * <p>
      * Source: http://stackoverflow.com/a/3584332
      */
@@ -38,21 +144,128 @@ public abstract class Networks {
         // Otherwise an exception may be thrown on invalid SSL certificates:
         final String furl = url.replaceFirst("^https", "http");
 
+        final URL target;
         try {
-            HttpURLConnection connection = (HttpURLConnection) new URL(furl).openConnection();
+            target = new URL(furl);
+        } catch (MalformedURLException mue) {
+            return false;
+        }
+
+        final Optional<HttpArchive> replaying = replaying();
+        if (replaying.isPresent()) {
+          final int code = Stream.of("HEAD", "GET")
+              .map(method -> replaying.get().get(method, target))
+              .filter(Optional::isPresent)
+              .findFirst()
+              .map(exchange -> exchange.get().getStatus())
+              .orElse(-1);
+          
+          return (200 <= code && code <= 399);
+        }
+        
+        final FlightEvents.Fetch event = FlightEvents.beginFetch("HEAD", target);
+        int responseCode = -1;
+        try {
+            HttpURLConnection connection = (HttpURLConnection) target.openConnection();
             connection.setConnectTimeout(timeout);
             connection.setReadTimeout(timeout);
             connection.setRequestMethod("HEAD");
-            int responseCode = connection.getResponseCode();
+            responseCode = connection.getResponseCode();
             return (200 <= responseCode && responseCode <= 399);
         } catch (IOException exception) {
             return false;
+        } finally {
+            event.end(responseCode, 0);
+            record("HEAD", target, responseCode, new byte[0]);
+        }
+    }
+    
+    private static final ConcurrentMap<String, FetchStatistics> statistics = new ConcurrentHashMap<>();
+    
+    /**
+     * Gets the {@link FetchStatistics} kept under a name, creating them if they do not exist. 
+     * @param name Name to keep statistics under, usually a repository name
+     * @return Non-{@code null} {@link FetchStatistics} instance, shared by all callers using {@code name}. 
+     * 
+     * @since Oct 18, 2026
+     */
+    public static FetchStatistics getStatistics(final String name) {
+      return statistics.computeIfAbsent(checkNotNull(name), FetchStatistics::new);
+    }
+    
+    /**
+     * Gets all of the {@link FetchStatistics} recorded so far. 
+     * @return Non-{@code null}, possibly empty, snapshot of {@link FetchStatistics}.
+     * 
+     * @since Oct 18, 2026
+     */
+    public static List<FetchStatistics> getAllStatistics() {
+      return ImmutableList.copyOf(statistics.values());
+    }
+    
+    /**
+     * Maximum number of redirects followed by {@link #connect(URL, long, Optional)}.
+     */
+    private static final int MAX_REDIRECTS = 5;
+    
+    /**
+     * Opens a connection to {@code url}, following redirects.
+     * @param url Location to request
+     * @param lastModified Value for {@code If-Modified-Since}, ignored if not positive
+     * @param ifNoneMatch Value for {@code If-None-Match}
+     * @return Connection with a response that is not a redirect
+     */
+    private static HttpURLConnection connect(final URL url, final long lastModified, 
+        final Optional<String> ifNoneMatch) throws IOException {
+      URL current = url;
+      
+      for (int redirects = 0; ; ++redirects) {
+        final HttpURLConnection http = (HttpURLConnection)current.openConnection();
+        http.setAllowUserInteraction(true);
+        http.setInstanceFollowRedirects(false);
+        http.setRequestMethod("GET");
+        
+        // if we already have a content instance, we can set the If-Modified-Since header, this will stop a full 
+        // download if not necessary since the response code will not be HTTP_OK
+        if (lastModified > 0) {
+          http.setIfModifiedSince(lastModified);
+        }
+        ifNoneMatch.ifPresent(tag -> http.setRequestProperty("If-None-Match", tag));
+        
+        http.connect();
+        
+        final int code = http.getResponseCode();
+        if (code != HttpURLConnection.HTTP_MOVED_PERM && code != HttpURLConnection.HTTP_MOVED_TEMP 
+            && code != HttpURLConnection.HTTP_SEE_OTHER && code != 307 && code != 308) {
+          return http;
+        }
+        
+        final String location = http.getHeaderField("Location");
+        http.disconnect();
+        
+        if (location == null) {
+          throw new IOException("Redirect without Location from " + current);
         }
+        
+        if (redirects == MAX_REDIRECTS) {
+          throw new IOException("Too many redirects from " + url);
+        }
+        
+        current = new URL(current, location);
+        log.finer("Following redirect: " + url + " -> " + current);
+      }
     }
     
     /**
      * Supplies the content of a {@link URL} and uses HTTP caching to try to avoid redownloading the file as they tend
-     * to be large. 
+     * to be large. Both {@code If-Modified-Since} and {@code If-None-Match} (ETag) validators are sent when known. 
+     * If a persistent {@link HttpCache} is set, its validators are used on the first request and its content is used
+     * when the server reports the content is not modified.
+     * 
+     * <p>
+     * Redirects are followed, including those across protocols (e.g. http to https) which {@link HttpURLConnection}
+     * does not follow. Any response other than {@code 200} or {@code 304} is an error.
+     * </p>
      * 
      * @author Kevin Brightwell <kevin.brightwell2@gmail.com>
      * @since Mar 2, 2015
@@ -63,65 +276,371 @@ public abstract class Networks {
       
       private final URL url;
       
+      private final FetchStatistics stats;
+      
       private long timestamp = -1;
+      private Optional<String> etag = Optional.empty();
       private Optional<String> content = Optional.empty();
       
       /**
        * Creates a new instance of URLSupplier.
        * @param url
+       * @param stats Statistics to record responses in
        * @since Mar 2, 2015
        */
-      URLSupplier(URL url) {
+      URLSupplier(URL url, FetchStatistics stats) {
         this.url = url;
+        this.stats = stats;
       }
       
       @Override
       public String get() {
+        final FlightEvents.Fetch event = FlightEvents.beginFetch("GET", url);
+        int code = -1;
+        long bytes = -1;
+        
         try {
-            HttpURLConnection http = (HttpURLConnection)url.openConnection();
-            http.setAllowUserInteraction(true);
-            http.setRequestMethod("GET");
-            
-            // if we already have a content instance, we can set the If-Modified-Since header, this will stop a full 
-            // download if not necessary since the response code will not be HTTP_OK
-            content.ifPresent(c -> {
-              http.setIfModifiedSince(timestamp);
-            });
+            final Optional<HttpArchive> replaying = replaying();
+            if (replaying.isPresent()) {
+              if (!content.isPresent()) {
+                final byte[] body = replay(replaying.get(), url).read();
+                content = Optional.of(new String(body));
+                
+                stats.recordOk(body.length);
+              } else {
+                stats.recordNotModified();
+              }
+              
+              return content.get();
+            }
+          
+            // only consult the persistent cache if we have never downloaded the content
+            Optional<HttpCache.Entry> cached = content.isPresent() 
+                ? Optional.empty() : cache.flatMap(c -> c.get(url));
+          
+            HttpURLConnection http;
+            if (content.isPresent()) {
+              http = connect(url, timestamp, etag);
+            } else if (cached.isPresent()) {
+              http = connect(url, cached.get().getLastModified(), cached.get().getETag());
+            } else {
+              http = connect(url, -1, Optional.empty());
+            }
             
-            http.connect();
+            if (http.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED 
+                && !content.isPresent() && !cached.isPresent()) {
+              // we sent no validators, the server is confused, ask again without any
+              log.warning("Received 304 without validators for " + url + ", retrying.");
+              
+              http = connect(url, -1, Optional.empty());
+            }
             
-            if (http.getResponseCode() == HttpURLConnection.HTTP_OK) {
+            code = http.getResponseCode();
+            if (code == HttpURLConnection.HTTP_OK) {
               // we only set the content if the HTTP response code was OK. 
               
               try (InputStream in = http.getInputStream()) {
-                content = Optional.of(IOUtils.toString(in));
+                final byte[] body = IOUtils.toByteArray(in);
+                bytes = body.length;
+                content = Optional.of(new String(body));
                 
-                // this will not be set if the toString call fails
+                // these will not be set if the read fails
                 timestamp = http.getLastModified();
+                etag = Optional.ofNullable(http.getHeaderField("ETag"));
+                
+                stats.recordOk(body.length);
+                store(body);
+                record("GET", url, code, body);
+              }
+            } else if (code == HttpURLConnection.HTTP_NOT_MODIFIED) {
+              stats.recordNotModified();
+              bytes = 0;
+              
+              if (!content.isPresent()) {
+                // the persistently cached content is still valid
+                final byte[] body = cached.get().read();
+                content = Optional.of(new String(body));
+                record("GET", url, HttpURLConnection.HTTP_OK, body);
+                timestamp = cached.get().getLastModified();
+                etag = cached.get().getETag();
               }
+            } else {
+              throw new IOException("Unexpected response " + code + " " + http.getResponseMessage() + " for " + url);
             }
             
             return content.get();
         }
         catch (IOException ioe) {
+          stats.recordError();
+          
           log.warning("URLSupplier#get() failed with exception");
           log.warning(Throwables.getStackTraceAsString(ioe));
           
           throw Throwables.propagate(ioe);
+        } finally {
+          event.end(code, bytes);
+        }
+      }
+      
+      /**
+       * Stores downloaded content in the persistent cache, if one is set. Failing to cache is not fatal.
+       */
+      private void store(final byte[] body) {
+        if (!cache.isPresent()) {
+          return;
+        }
+        
+        try {
+          cache.get().put(url, timestamp, etag, body);
+        } catch (IOException ioe) {
+          log.warning("Could not cache " + url + ": " + ioe.getMessage());
         }
       }
       
     }
     
     /**
-     * Creates a simple {@link Supplier} function that downloads a {@link URL} via {@link IOUtils#toString(URL)}.
+     * Streams the content of a {@link URL} rather than holding it in memory. Unlike {@link URLSupplier}, nothing is 
+     * kept between calls to {@link #openStream()} except through the persistent {@link HttpCache}: if one is set, a 
+     * {@code 200} response is streamed into the cache and read back from it, and a {@code 304} response is read from 
+     * the cache; a body evicted from the cache before it is read back is fetched again without the cache. While 
+     * recording an {@link HttpArchive}, the content is read into memory to be recorded.
+     * 
+     * @since Oct 18, 2026
+     */
+    private static class URLSource extends ByteSource {
+      
+      private final URL url;
+      
+      private final FetchStatistics stats;
+      
+      URLSource(final URL url, final FetchStatistics stats) {
+        this.url = url;
+        this.stats = stats;
+      }
+      
+      @Override
+      public InputStream openStream() throws IOException {
+        final FlightEvents.Fetch event = FlightEvents.beginFetch("GET", url);
+        int status = -1;
+        
+        // the statistics and the event are only ended once the stream is open, thus a failure is counted once
+        try {
+          final Optional<HttpArchive> replaying = replaying();
+          if (replaying.isPresent()) {
+            final ByteSource body = replay(replaying.get(), url);
+            final long size = body.size();
+            final InputStream in = body.openStream();
+            
+            status = HttpURLConnection.HTTP_OK;
+            stats.recordOk(size);
+            event.end(status, size);
+            return in;
+          }
+          
+          Optional<HttpCache> cache = getCache();
+          final Optional<HttpCache.Entry> cached = cache.flatMap(c -> c.get(url));
+          
+          HttpURLConnection http = cached.isPresent() 
+              ? connect(url, cached.get().getLastModified(), cached.get().getETag())
+              : connect(url, -1, Optional.empty());
+          
+          if (http.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED && !cached.isPresent()) {
+            // we sent no validators, the server is confused, ask again without any
+            log.warning("Received 304 without validators for " + url + ", retrying.");
+            http = connect(url, -1, Optional.empty());
+          }
+          
+          status = http.getResponseCode();
+          if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            final Optional<InputStream> in = openCached(cached.get().getBody());
+            if (in.isPresent()) {
+              stats.recordNotModified();
+              event.end(status, 0);
+              return in.get();
+            }
+            
+            // evicted since it was validated, fetch it again without the cache
+            cache = Optional.empty();
+            http = connect(url, -1, Optional.empty());
+            status = http.getResponseCode();
+          }
+          
+          if (status != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Unexpected response " + status + " " + http.getResponseMessage() + " for " + url);
+          }
+          
+          CountingInputStream counting = new CountingInputStream(http.getInputStream());
+          if (cache.isPresent()) {
+            final HttpCache.Entry entry;
+            try {
+              entry = cache.get().put(url, http.getLastModified(), 
+                  Optional.ofNullable(http.getHeaderField("ETag")), counting);
+            } finally {
+              counting.close();
+            }
+            
+            final Optional<InputStream> in = openCached(entry.getBody());
+            if (in.isPresent()) {
+              stats.recordOk(counting.getCount());
+              event.end(status, counting.getCount());
+              return in.get();
+            }
+            
+            // evicted since it was stored, fetch it again without the cache
+            http = connect(url, -1, Optional.empty());
+            status = http.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+              throw new IOException("Unexpected response " + status + " " + http.getResponseMessage() + " for " 
+                  + url);
+            }
+            
+            counting = new CountingInputStream(http.getInputStream());
+          }
+          
+          if (archive.isPresent()) {
+            final byte[] body;
+            try {
+              body = ByteStreams.toByteArray(counting);
+            } finally {
+              counting.close();
+            }
+            
+            record("GET", url, status, body);
+            
+            stats.recordOk(body.length);
+            event.end(status, body.length);
+            return new ByteArrayInputStream(body);
+          }
+          
+          // count the downloaded bytes and end the event once the caller is done reading, only a body read to its end
+          // is a successful download
+          final CountingInputStream streamed = counting;
+          final int code = status;
+          final long length = http.getContentLengthLong();
+          return new FilterInputStream(streamed) {
+            private boolean eof = false;
+            private boolean closed = false;
+            
+            @Override
+            public int read() throws IOException {
+              final int b = super.read();
+              eof |= b < 0;
+              return b;
+            }
+            
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+              final int n = super.read(b, off, len);
+              eof |= n < 0;
+              return n;
+            }
+            
+            @Override
+            public void close() throws IOException {
+              if (closed) {
+                return;
+              }
+              closed = true;
+              
+              try {
+                super.close();
+              } finally {
+                final long count = streamed.getCount();
+                // the JDK may end a body cut short by the server like a complete one
+                if (length >= 0 ? count == length : eof) {
+                  stats.recordOk(count);
+                  event.end(code, count);
+                } else {
+                  log.warning("Download of " + url + " ended after " + count + " bytes.");
+                  stats.recordError();
+                  event.end(code, -1);
+                }
+              }
+            }
+          };
+        } catch (IOException ioe) {
+          stats.recordError();
+          event.end(status, -1);
+          
+          log.warning("Failed to open " + url + ": " + ioe.getMessage());
+          throw ioe;
+        }
+      }
+      
+      /**
+       * Opens a body in the persistent cache and records it if an {@link HttpArchive} is recording. The body may be 
+       * removed by a concurrent {@link HttpCache#evict()} at any time before it is open.
+       * 
+       * @return {@link Optional#empty()} if the body was evicted.
+       */
+      private Optional<InputStream> openCached(final Path body) throws IOException {
+        final InputStream in;
+        try {
+          in = Files.newInputStream(body);
+        } catch (NoSuchFileException nsfe) {
+          log.fine("Cached body of " + url + " was evicted, fetching it again.");
+          return Optional.empty();
+        }
+        
+        if (!archive.isPresent()) {
+          return Optional.of(in);
+        }
+        
+        // read from the open stream rather than the file, it may be evicted meanwhile
+        final byte[] content;
+        try {
+          content = ByteStreams.toByteArray(in);
+        } finally {
+          in.close();
+        }
+        
+        record("GET", url, HttpURLConnection.HTTP_OK, content);
+        return Optional.of(new ByteArrayInputStream(content));
+      }
+      
+      @Override
+      public String toString() {
+        return "Networks.newURLSource(" + url + ")";
+      }
+    }
+    
+    /**
+     * Creates a {@link ByteSource} that streams the content of a {@link URL}, use this instead of 
+     * {@link #newURLDownloader(URL, FetchStatistics)} for content that may be large. The persistent {@link HttpCache}
+     * is used if set.
+     * @param url The {@link URL} to download
+     * @param stats Statistics to count the responses in, see {@link #getStatistics(String)}
+     * @return {@link ByteSource} that downloads the {@link URL} each time it is opened.
+     * 
+     * @since Oct 18, 2026
+     */
+    public static ByteSource newURLSource(final URL url, final FetchStatistics stats) {
+      return new URLSource(checkNotNull(url), checkNotNull(stats));
+    }
+    
+    /**
+     * Creates a simple {@link Supplier} function that downloads a {@link URL}, responses are counted in the 
+     * {@link FetchStatistics} named by the {@link URL}'s host.
      * @param url The {@link URL} to download
      * @return {@link Supplier} function for downloading a {@link URL}. 
      * 
      * @since Feb 25, 2015
      */
     public static Supplier<String> newURLDownloader(final URL url) {
-      return new URLSupplier(url);
+      return newURLDownloader(url, getStatistics(url.getHost()));
+    }
+    
+    /**
+     * Creates a simple {@link Supplier} function that downloads a {@link URL}.
+     * @param url The {@link URL} to download
+     * @param stats Statistics to count the responses in, see {@link #getStatistics(String)}
+     * @return {@link Supplier} function for downloading a {@link URL}. 
+     * 
+     * @since Oct 18, 2026
+     */
+    public static Supplier<String> newURLDownloader(final URL url, final FetchStatistics stats) {
+      return new URLSupplier(checkNotNull(url), checkNotNull(stats));
     }
     
     /**
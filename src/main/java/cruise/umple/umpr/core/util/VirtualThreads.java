@@ -0,0 +1,93 @@
+package cruise.umple.umpr.core.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+
+/**
+ * Utility methods for using virtual threads when the running JDK supports them. The project is built against Java 8,
+ * so all access is done reflectively and callers must handle the JDK not supporting virtual threads.
+ */
+public abstract class VirtualThreads {
+
+  private static final Logger log = Logger.getLogger(VirtualThreads.class.getName());
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * Checks if the running JDK can create virtual threads.
+   * @return {@code true} if {@link #newThreadPerTaskExecutor(String)} will return a value.
+   *
+   * @since Oct 18, 2026
+   */
+  public static boolean isSupported() {
+    if (!newThreadFactory("probe-").isPresent()) {
+      return false;
+    }
+
+    try {
+      Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+      return true;
+    } catch (NoSuchMethodException nsme) {
+      return false;
+    }
+  }
+
+  /**
+   * Creates a {@link ThreadFactory} that creates virtual threads named {@code prefix} followed by a counter.
+   * @param prefix Thread name prefix
+   * @return {@link Optional#empty()} if virtual threads are not supported by the running JDK.
+   */
+  private static Optional<ThreadFactory> newThreadFactory(final String prefix) {
+    checkNotNull(prefix);
+
+    try {
+      final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+
+      Object builder = ofVirtual.invoke(null);
+      builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+
+      return Optional.of((ThreadFactory)builderType.getMethod("factory").invoke(builder));
+    } catch (NoSuchMethodException | ClassNotFoundException | IllegalAccessException e) {
+      // older JDK, no virtual threads
+      return Optional.empty();
+    } catch (InvocationTargetException ite) {
+      // preview JDKs throw UnsupportedOperationException when previews are disabled
+      log.fine("Virtual threads are not enabled: " + ite.getCause());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Creates an {@link ExecutorService} that starts a new virtual thread for every task.
+   *
+   * @param prefix Thread name prefix
+   * @return {@link Optional#empty()} if virtual threads are not supported by the running JDK, otherwise a new
+   *    {@link ExecutorService}.
+   *
+   * @since Oct 18, 2026
+   */
+  public static Optional<ExecutorService> newThreadPerTaskExecutor(final String prefix) {
+    final Optional<ThreadFactory> factory = newThreadFactory(prefix);
+    if (!factory.isPresent()) {
+      return Optional.empty();
+    }
+
+    try {
+      final Method create = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+
+      return Optional.of((ExecutorService)create.invoke(null, factory.get()));
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+      log.fine("Could not create virtual thread executor: " + e);
+      return Optional.empty();
+    }
+  }
+}
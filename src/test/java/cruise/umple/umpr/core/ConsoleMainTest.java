@@ -1,6 +1,7 @@
 package cruise.umple.umpr.core;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -85,5 +86,24 @@ public class ConsoleMainTest {
                 "Failed to import properly.");
     }
 
+    /**
+     * Tests that overriding removes the output of previous runs that was not replaced, but keeps the new output.
+     * 
+     * @since Oct 18, 2026
+     */
+    @Test
+    public void overrideRemovesStaleOutput() throws IOException {
+        final File stale = new File(cfg.outputFolder, "StaleRepository");
+        Files.createParentDirs(new File(stale, "old.ump"));
+        Files.touch(new File(stale, "old.ump"));
+
+        cfg.override = true;
+        main.run(cfg);
+
+        Assert.assertFalse(stale.exists(), "Stale output was kept.");
+        Assert.assertTrue(new File(cfg.outputFolder, TestRepository.TEST_NAME).isDirectory(), "New output removed.");
+        Assert.assertTrue(new File(cfg.outputFolder, ConsoleMain.META_FILE).isFile(), "Metadata removed.");
+    }
+
 
 }
@@ -0,0 +1,281 @@
+package cruise.umple.umpr.core;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.entities.ImportEntity;
+import cruise.umple.umpr.core.entities.ImportEntityFactory;
+
+import cruise.umple.umpr.core.fixtures.MockModule;
+import cruise.umple.umpr.core.fixtures.SyntheticZooServer;
+import cruise.umple.umpr.core.repositories.TestRepository;
+import cruise.umple.umpr.core.util.VirtualThreads;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.inject.Inject;
+
+/**
+ * Tests the {@link ImportEngine} in both its pooled and pipelined modes against the {@link TestRepository}.
+ */
+@Guice(modules={MockModule.class})
+public class ImportEngineTest {
+
+  private final Set<Repository> repositories;
+
+  private ConsoleMain.Config cfg;
+  private Path workingDir;
+
+  @Inject
+  private ImportEntityFactory entityFactory;
+
+  @Inject
+  public ImportEngineTest(Set<Repository> repositories) {
+    this.repositories = repositories;
+  }
+
+  @BeforeMethod
+  public void beforeMethod() throws IOException {
+    cfg = new ConsoleMain.Config();
+    cfg.fetchThreads = 2;
+    cfg.importThreads = 2;
+    cfg.modelThreads = 2;
+
+    workingDir = Files.createTempDirectory("TEST_ENGINE_");
+  }
+
+  /**
+   * Runs the engine and checks every entity ended in the state expected by {@link TestRepository#failStates}.
+   */
+  private void runAndCheck() {
+    final List<ImportResult> results;
+    try (ImportEngine engine = new ImportEngine(cfg)) {
+      results = engine.run(repositories.stream().flatMap(Repository::getImports),
+          e -> workingDir.resolve(e.getRepository().getName()).resolve(e.getPath()));
+    }
+
+    assertEquals(results.size(), TestRepository.ECORE_FILES.size(), "Lost entities while running.");
+
+    results.forEach(fsm -> {
+      final String name = fsm.getOutputPath().getFileName().toString();
+      assertEquals(fsm.getState(), TestRepository.failStates.get(name), "Unexpected state for " + name);
+    });
+  }
+
+  @Test
+  public void pooled() {
+    cfg.pipeline = false;
+
+    runAndCheck();
+  }
+
+  @Test
+  public void pipelined() {
+    cfg.pipeline = true;
+    // force back-pressure between the stages
+    cfg.queueCapacity = 1;
+
+    runAndCheck();
+  }
+
+  @Test
+  public void completionReleasesContent() {
+    cfg.pipeline = true;
+
+    final Set<ImportFSM> completed = Sets.newConcurrentHashSet();
+    final Map<Path, Boolean> hadContent = new ConcurrentHashMap<>();
+    final List<ImportResult> results;
+    try (ImportEngine engine = new ImportEngine(cfg)) {
+      results = engine.run(repositories.stream().flatMap(Repository::getImports),
+          e -> workingDir.resolve(e.getRepository().getName()).resolve(e.getPath()), fsm -> {
+            hadContent.put(fsm.getOutputPath(), fsm.getInputContent().isPresent());
+            completed.add(fsm);
+          });
+    }
+
+    assertEquals(completed.size(), results.size());
+    completed.forEach(fsm -> assertFalse(fsm.getInputContent().isPresent(), "Content not released."));
+
+    // everything fetched is still available while completing
+    results.stream().filter(result -> result.getInputHash().isPresent()).forEach(result -> {
+      assertTrue(hadContent.get(result.getOutputPath()), "Content released early: " + result.getOutputPath());
+      assertTrue(result.getInputSize() > 0, "Missing size for " + result.getOutputPath());
+    });
+  }
+
+  @DataProvider
+  public Object[][] modes() {
+    return new Object[][] { { false }, { true } };
+  }
+
+  @DataProvider
+  public Object[][] fetchModes() {
+    return new Object[][] { { false, false }, { true, false }, { false, true }, { true, true } };
+  }
+
+  /**
+   * A fetch that ignores interrupts must not hold up the rest of the run once it is past its budget.
+   */
+  @Test(dataProvider = "fetchModes", timeOut = 30_000)
+  public void abandonsStuckStage(final boolean pipeline, final boolean virtualFetch) {
+    cfg.pipeline = pipeline;
+    cfg.virtualFetch = virtualFetch;
+    cfg.fetchThreads = 1;
+    cfg.fetchConcurrency = 1;
+    cfg.fetchTimeout = 1;
+
+    final Repository repository = repositories.iterator().next();
+    final CountDownLatch release = new CountDownLatch(1);
+    final ImportEntity stuck = entityFactory.createStringEntity(repository, Paths.get("stuck.ecore"),
+        UmpleImportType.ECORE, () -> {
+          Uninterruptibles.awaitUninterruptibly(release);
+          return "";
+        }, Optional.empty());
+
+    final List<ImportEntity> entities = ImmutableList.<ImportEntity>builder()
+        .add(stuck)
+        .addAll(repository.getImports().iterator())
+        .build();
+
+    final List<ImportResult> results;
+    try (ImportEngine engine = new ImportEngine(cfg)) {
+      results = engine.run(entities.stream(),
+          e -> workingDir.resolve(e.getRepository().getName()).resolve(e.getPath()));
+    } finally {
+      release.countDown();
+    }
+
+    assertEquals(results.size(), entities.size(), "Lost entities while running.");
+
+    final ImportResult abandoned = results.stream()
+        .filter(result -> result.getOutputPath().endsWith("stuck.ecore"))
+        .findFirst().get();
+    assertEquals(abandoned.getState(), ImportFSM.State.Fetch);
+    assertTrue(abandoned.getFailure().get().contains("exceeded its budget"), abandoned.getFailure().get());
+  }
+
+  /**
+   * An import stuck in a worker JVM must not keep the worker, the next files are imported by a new one.
+   */
+  @Test(dataProvider = "modes", timeOut = 60_000)
+  public void stopsStuckWorker(final boolean pipeline) {
+    cfg.pipeline = pipeline;
+    cfg.importThreads = 1;
+    cfg.workers = 1;
+    cfg.workerHeap = 64;
+    cfg.workerMain = StallingUmpleWorker.class;
+    cfg.importTimeout = 1;
+
+    final Repository repository = repositories.iterator().next();
+    final ImmutableList.Builder<ImportEntity> entities = ImmutableList.<ImportEntity>builder()
+        .add(entityFactory.createStringEntity(repository, Paths.get("stuck.ecore"), UmpleImportType.ECORE,
+            () -> StallingUmpleWorker.STALL, Optional.empty()));
+    for (int i = 0; i < 3; ++i) {
+      entities.add(entityFactory.createStringEntity(repository, Paths.get("next-" + i + ".ecore"),
+          UmpleImportType.ECORE, () -> "<next/>", Optional.empty()));
+    }
+
+    final List<ImportResult> results;
+    try (ImportEngine engine = new ImportEngine(cfg)) {
+      results = engine.run(entities.build().stream(),
+          e -> workingDir.resolve(e.getRepository().getName()).resolve(e.getPath()));
+    }
+
+    assertEquals(results.size(), 4, "Lost entities while running.");
+
+    results.forEach(result -> {
+      final String name = result.getOutputPath().getFileName().toString();
+      if (name.equals("stuck.ecore")) {
+        assertEquals(result.getState(), ImportFSM.State.Import);
+        assertTrue(result.getFailure().get().contains("exceeded its budget"), result.getFailure().get());
+      } else {
+        assertEquals(result.getState(), ImportFSM.State.Completed, "Not imported after the stuck worker: " + name
+            + " " + result.getFailure());
+      }
+    });
+  }
+
+  @Test(dataProvider = "modes", timeOut = 30_000)
+  public void warmsUpEveryThread(final boolean pipeline) {
+    cfg.pipeline = pipeline;
+    cfg.importThreads = 3;
+    cfg.modelThreads = 2;
+
+    final Multiset<String> threads = ConcurrentHashMultiset.create();
+    try (ImportEngine engine = new ImportEngine(cfg)) {
+      engine.warmUp(dir -> threads.add(Thread.currentThread().getName()));
+    }
+
+    final int expected = cfg.importThreads + (pipeline ? cfg.modelThreads : 0);
+    assertEquals(threads.size(), expected, "Warm-up ran on the wrong number of threads: " + threads);
+    assertEquals(threads.elementSet().size(), expected, "Warm-up ran twice on a thread: " + threads);
+    assertEquals(threads.elementSet().stream().filter(name -> name.startsWith("umpr-import-")).count(),
+        (long) cfg.importThreads, "Warm-up skipped an import thread: " + threads);
+  }
+
+  /**
+   * Fetching on virtual threads falls back to the fetch pool on a JVM without them, either way the fetches running at
+   * once are capped.
+   */
+  @Test(timeOut = 30_000)
+  public void virtualFetch() {
+    cfg.virtualFetch = true;
+    cfg.fetchThreads = 2;
+    cfg.fetchConcurrency = 3;
+
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    final Repository repository = repositories.iterator().next();
+    final ImmutableList.Builder<ImportEntity> entities = ImmutableList.builder();
+    for (int i = 0; i < 12; ++i) {
+      final String content = SyntheticZooServer.ecore("virtual" + i, 1);
+      entities.add(entityFactory.createStringEntity(repository, Paths.get("virtual-" + i + ".ecore"),
+          UmpleImportType.ECORE, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            threads.add(Thread.currentThread().getName());
+            Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+            running.decrementAndGet();
+            return content;
+          }, Optional.empty()));
+    }
+
+    final List<ImportResult> results;
+    try (ImportEngine engine = new ImportEngine(cfg)) {
+      results = engine.run(entities.build().stream(),
+          e -> workingDir.resolve(e.getRepository().getName()).resolve(e.getPath()));
+    }
+
+    assertEquals(results.size(), 12, "Lost entities while running.");
+    results.forEach(result -> assertEquals(result.getState(), ImportFSM.State.Completed, result.toString()));
+
+    final int cap = VirtualThreads.isSupported() ? cfg.fetchConcurrency : cfg.fetchThreads;
+    assertTrue(maxRunning.get() <= cap, "Ran " + maxRunning.get() + " fetches at once, more than " + cap);
+    assertTrue(maxRunning.get() > 1, "Fetches did not run concurrently.");
+    assertTrue(threads.stream().allMatch(name -> name.startsWith("umpr-fetch-")), threads.toString());
+  }
+}
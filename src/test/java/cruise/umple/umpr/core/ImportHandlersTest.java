@@ -0,0 +1,52 @@
+package cruise.umple.umpr.core;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import cruise.umple.compiler.UmpleImportHandler;
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.repositories.TestRepository;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link ImportHandlers}.
+ */
+@Test
+public class ImportHandlersTest {
+
+  @AfterMethod
+  public void afterMethod() {
+    ImportHandlers.setReuse(false);
+  }
+
+  private static String importUmple(final String file) throws Exception {
+    return UmpleCompiler.importLocally(UmpleImportType.ECORE,
+        new ByteArrayInputStream(TestRepository.ECORE_MAP.get(file).get().getBytes(StandardCharsets.UTF_8)));
+  }
+
+  public void reusedHandlerMatchesFreshHandler() throws Exception {
+    final String first = importUmple("bibtex.ecore");
+    final String second = importUmple("ocl-operations.ecore");
+
+    ImportHandlers.setReuse(true);
+
+    // the second import runs on the handler kept by the first, on the same thread
+    assertEquals(importUmple("bibtex.ecore"), first);
+    assertEquals(importUmple("ocl-operations.ecore"), second, "Reused handler kept state of the previous import.");
+    assertEquals(importUmple("bibtex.ecore"), first, "Reused handler kept state of the previous import.");
+  }
+
+  public void keepsHandlerPerThread() {
+    ImportHandlers.setReuse(true);
+
+    final UmpleImportHandler handler = ImportHandlers.acquire(UmpleImportType.ECORE);
+    ImportHandlers.release(UmpleImportType.ECORE, handler);
+
+    assertSame(ImportHandlers.acquire(UmpleImportType.ECORE), handler, "Idle handler was not reused.");
+  }
+}
@@ -0,0 +1,126 @@
+package cruise.umple.umpr.core;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import cruise.umple.umpr.core.fixtures.MockModule;
+import cruise.umple.umpr.core.repositories.TestRepository;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.inject.Inject;
+
+@Guice(modules={MockModule.class})
+public class ImportMetricsTest {
+
+  private final Set<Repository> repositories;
+
+  private ConsoleMain.Config cfg;
+  private Path workingDir;
+
+  @Inject
+  public ImportMetricsTest(Set<Repository> repositories) {
+    this.repositories = repositories;
+  }
+
+  @BeforeMethod
+  public void beforeMethod() throws IOException {
+    cfg = new ConsoleMain.Config();
+    cfg.fetchThreads = 2;
+    cfg.importThreads = 2;
+    cfg.modelThreads = 2;
+
+    workingDir = Files.createTempDirectory("TEST_METRICS_");
+  }
+
+  private List<ImportResult> run(final ImportMetrics metrics) {
+    try (ImportEngine engine = new ImportEngine(cfg, Optional.empty(), metrics)) {
+      return engine.run(repositories.stream().flatMap(Repository::getImports),
+          e -> workingDir.resolve(e.getRepository().getName()).resolve(e.getPath()));
+    }
+  }
+
+  @DataProvider
+  public Object[][] modes() {
+    return new Object[][] { { false }, { true } };
+  }
+
+  @Test(dataProvider = "modes")
+  public void countsRun(final boolean pipeline) {
+    cfg.pipeline = pipeline;
+
+    final ImportMetrics metrics = new ImportMetrics();
+    final List<ImportResult> results = run(metrics);
+
+    final long succeeded = results.stream().filter(ImportResult::isSuccessful).count();
+    final long bytes = results.stream().mapToLong(r -> Math.max(0, r.getInputSize())).sum();
+
+    assertEquals(metrics.getDiscovered(), results.size());
+    assertEquals(metrics.getSucceeded(), succeeded);
+    assertEquals(metrics.getFailed(), results.size() - succeeded);
+    assertEquals(metrics.getBytesFetched(), bytes);
+
+    metrics.getInState().forEach((state, count) -> assertEquals((long)count, 0L, "Still counted in " + state));
+    assertTrue(metrics.getQueueDepths().isEmpty(), "Queues still reported after the run.");
+
+    final RepositoryMetricsMXBean repo = metrics.getRepository(TestRepository.TEST_NAME).get();
+    assertEquals(repo.getDiscovered(), results.size());
+  }
+
+  @Test
+  public void registersWithJmx() throws JMException {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName total = new ObjectName(ImportMetrics.DOMAIN + ":type=ImportMetrics");
+    final ObjectName repo = new ObjectName(ImportMetrics.DOMAIN + ":type=RepositoryMetrics,name="
+        + ObjectName.quote(TestRepository.TEST_NAME));
+
+    final ImportMetrics metrics = new ImportMetrics();
+    metrics.register();
+    try {
+      run(metrics);
+
+      assertEquals(server.getAttribute(total, "Discovered"), (long)TestRepository.ECORE_FILES.size());
+      assertEquals(server.getAttribute(repo, "Discovered"), (long)TestRepository.ECORE_FILES.size());
+    } finally {
+      metrics.unregister();
+    }
+
+    assertFalse(server.isRegistered(total));
+    assertFalse(server.isRegistered(repo));
+  }
+
+  @Test
+  public void writesPrometheusTextfile() throws IOException {
+    final ImportMetrics metrics = new ImportMetrics();
+    metrics.addQueue("test", () -> 3);
+    run(metrics);
+
+    final Path file = workingDir.resolve("umpr.prom");
+    new PrometheusTextfile(metrics, file, 60).close();
+
+    final String text = new String(Files.readAllBytes(file), Charsets.UTF_8);
+    assertTrue(text.contains("# TYPE umpr_entities_discovered_total counter\n"), text);
+    assertTrue(text.contains("umpr_entities_discovered_total{repository=\"" + TestRepository.TEST_NAME + "\"} "
+        + TestRepository.ECORE_FILES.size() + "\n"), text);
+    assertTrue(text.contains("umpr_entities_in_state{repository=\"" + TestRepository.TEST_NAME
+        + "\",state=\"Fetch\"} 0\n"), text);
+    assertTrue(text.contains("umpr_queue_depth{queue=\"test\"} 3\n"), text);
+  }
+}
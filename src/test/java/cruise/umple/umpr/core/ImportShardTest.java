@@ -0,0 +1,62 @@
+package cruise.umple.umpr.core;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+@Test
+public class ImportShardTest {
+
+  public void parse() {
+    assertEquals(ImportShard.parse("2/4"), ImportShard.of(2, 4));
+    assertEquals(ImportShard.parse(" 0 / 1 "), ImportShard.ALL);
+    assertEquals(ImportShard.parse(ImportShard.of(3, 8).toString()), ImportShard.of(3, 8));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void parseRejectsIndexOutOfRange() {
+    ImportShard.parse("4/4");
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void parseRejectsMalformed() {
+    ImportShard.parse("1of4");
+  }
+
+  public void partitionsEntities() {
+    final int count = 4;
+    final int[] sizes = new int[count];
+
+    IntStream.range(0, 4000).forEach(i -> {
+      final int shard = ImportShard.shardOf("repo-" + (i % 7), Paths.get("models", i + ".ecore"), count);
+      assertTrue(shard >= 0 && shard < count, "Shard out of range: " + shard);
+      ++sizes[shard];
+
+      // stable across calls
+      assertEquals(ImportShard.shardOf("repo-" + (i % 7), Paths.get("models", i + ".ecore"), count), shard);
+    });
+
+    for (int size : sizes) {
+      assertTrue(size > 800 && size < 1200, "Shards are unbalanced: " + Arrays.toString(sizes));
+    }
+  }
+
+  public void pathSeparatorDoesNotMatter() {
+    assertEquals(ImportShard.shardOf("repo", Paths.get("a", "b", "c.ecore"), 16),
+        ImportShard.shardOf("repo", Paths.get("a/b/c.ecore"), 16));
+  }
+
+  public void repositoryIsPartOfTheKey() {
+    final long moved = IntStream.range(0, 100)
+        .filter(i -> ImportShard.shardOf("a", Paths.get(i + ".ecore"), 8)
+            != ImportShard.shardOf("b", Paths.get(i + ".ecore"), 8))
+        .count();
+
+    assertTrue(moved > 50, "Same paths of different repositories should be spread over the shards.");
+  }
+}
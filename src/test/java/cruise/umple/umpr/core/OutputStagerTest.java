@@ -0,0 +1,155 @@
+package cruise.umple.umpr.core;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+@Test
+public class OutputStagerTest {
+
+  private Path output;
+
+  @BeforeMethod
+  public void beforeMethod() throws IOException {
+    output = Files.createTempDirectory("TEST_STAGER_");
+  }
+
+  private static void write(final Path file, final String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(Charsets.UTF_8));
+  }
+
+  private static String read(final Path file) throws IOException {
+    return new String(Files.readAllBytes(file), Charsets.UTF_8);
+  }
+
+  private Set<String> listOutput() throws IOException {
+    try (Stream<Path> files = Files.list(output)) {
+      return files.map(p -> p.getFileName().toString()).collect(Collectors.toSet());
+    }
+  }
+
+  public void commitsNewRepositories() throws IOException {
+    try (OutputStager stager = new OutputStager(output, ImmutableSet.of())) {
+      assertEquals(stager.getStagingDir().getParent(), output.toAbsolutePath());
+
+      write(stager.getStagingDir().resolve("a/one.ump"), "one");
+      write(stager.getStagingDir().resolve("b/two.ump"), "two");
+
+      assertFalse(Files.exists(output.resolve("a")), "Staged output visible before commit.");
+      assertEquals(stager.commit(true), ImmutableList.of("a", "b"));
+    }
+
+    assertEquals(read(output.resolve("a/one.ump")), "one");
+    assertEquals(read(output.resolve("b/two.ump")), "two");
+    assertEquals(listOutput(), ImmutableSet.of("a", "b"), "Staging folder was not removed.");
+  }
+
+  public void mergesWithExistingOutput() throws IOException {
+    write(output.resolve("a/old.ump"), "old");
+    write(output.resolve("a/one.ump"), "stale");
+
+    try (OutputStager stager = new OutputStager(output, ImmutableSet.of())) {
+      write(stager.getStagingDir().resolve("a/one.ump"), "one");
+      stager.commit(true);
+    }
+
+    assertEquals(read(output.resolve("a/one.ump")), "one");
+    assertEquals(read(output.resolve("a/old.ump")), "old");
+  }
+
+  public void replacesWithoutMerging() throws IOException {
+    write(output.resolve("a/old.ump"), "old");
+    write(output.resolve("untouched/keep.ump"), "keep");
+
+    try (OutputStager stager = new OutputStager(output, ImmutableSet.of())) {
+      write(stager.getStagingDir().resolve("a/one.ump"), "one");
+      stager.commit(false);
+    }
+
+    assertEquals(read(output.resolve("a/one.ump")), "one");
+    assertFalse(Files.exists(output.resolve("a/old.ump")));
+    assertTrue(Files.exists(output.resolve("untouched/keep.ump")), "Repository not staged was replaced.");
+  }
+
+  public void keepsIgnoredPaths() throws IOException {
+    write(output.resolve("a/keep.ump"), "mine");
+    write(output.resolve("b/one.ump"), "mine");
+
+    final Set<Path> ignored = ImmutableSet.of(output.resolve("a/keep.ump"), output.resolve("b"));
+    try (OutputStager stager = new OutputStager(output, ignored)) {
+      write(stager.getStagingDir().resolve("a/keep.ump"), "generated");
+      write(stager.getStagingDir().resolve("a/one.ump"), "generated");
+      write(stager.getStagingDir().resolve("b/one.ump"), "generated");
+
+      assertEquals(stager.commit(false), ImmutableList.of("a"));
+    }
+
+    assertEquals(read(output.resolve("a/keep.ump")), "mine");
+    assertEquals(read(output.resolve("a/one.ump")), "generated");
+    assertEquals(read(output.resolve("b/one.ump")), "mine");
+  }
+
+  public void removesUncommittedOutput() throws IOException {
+    final Path abandoned = output.resolve(OutputStager.STAGING_PREFIX + "crashed");
+    write(abandoned.resolve("a/one.ump"), "one");
+
+    try (OutputStager stager = new OutputStager(output, ImmutableSet.of())) {
+      assertFalse(Files.exists(abandoned), "Abandoned staging folder was not removed.");
+
+      write(stager.getStagingDir().resolve("a/one.ump"), "one");
+    }
+
+    assertEquals(listOutput(), ImmutableSet.of(), "Uncommitted output was not removed.");
+  }
+
+  public void syncOnlyTouchesChangedFiles() throws IOException {
+    write(output.resolve("a/same.ump"), "same");
+    write(output.resolve("a/changed.ump"), "before");
+    write(output.resolve("a/stale.ump"), "stale");
+    write(output.resolve("gone/stale.ump"), "stale");
+    write(output.resolve("kept/mine.ump"), "mine");
+    write(output.resolve(".hidden"), "hidden");
+
+    final Path same = output.resolve("a/same.ump");
+    final FileTime sameTime = FileTime.fromMillis(0);
+    Files.setLastModifiedTime(same, sameTime);
+
+    final OutputStager.SyncReport report;
+    try (OutputStager stager = new OutputStager(output, ImmutableSet.of(output.resolve("kept")))) {
+      write(stager.getStagingDir().resolve("a/same.ump"), "same");
+      write(stager.getStagingDir().resolve("a/changed.ump"), "after");
+      write(stager.getStagingDir().resolve("b/new.ump"), "new");
+      write(stager.getStagingDir().resolve("kept/mine.ump"), "generated");
+
+      report = stager.sync();
+    }
+
+    assertEquals(report.getAdded(), 1);
+    assertEquals(report.getUpdated(), 1);
+    assertEquals(report.getUnchanged(), 1);
+    assertEquals(report.getDeleted(), 2);
+
+    assertEquals(Files.getLastModifiedTime(same), sameTime, "Unchanged file was rewritten.");
+    assertEquals(read(output.resolve("a/changed.ump")), "after");
+    assertEquals(read(output.resolve("b/new.ump")), "new");
+    assertEquals(read(output.resolve("kept/mine.ump")), "mine");
+    assertFalse(Files.exists(output.resolve("a/stale.ump")));
+    assertEquals(listOutput(), ImmutableSet.of("a", "b", "kept", ".hidden"), "Stale folder was not removed.");
+  }
+}
@@ -0,0 +1,213 @@
+package cruise.umple.umpr.core;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.entities.ImportEntity;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+@Test
+public class RepositoryDiscoveryTest {
+
+  /**
+   * {@link Repository} that is only identified by its name, its entities are created by the test.
+   */
+  private static class NamedRepository implements Repository {
+
+    private final String name;
+
+    NamedRepository(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getDescription() {
+      return name;
+    }
+
+    @Override
+    public Optional<URL> getRemoteLoc() {
+      return Optional.empty();
+    }
+
+    @Override
+    public License getLicense() {
+      return License.MIT;
+    }
+
+    @Override
+    public DiagramType getDiagramType() {
+      return DiagramType.CLASS;
+    }
+
+    @Override
+    public Stream<ImportEntity> getImports() {
+      return Stream.empty();
+    }
+
+    @Override
+    public boolean isAccessible() {
+      return true;
+    }
+  }
+
+  private static class Entity implements ImportEntity {
+
+    private final Repository repository;
+    private final Path path;
+
+    Entity(final Repository repository, final String path) {
+      this.repository = repository;
+      this.path = Paths.get(path);
+    }
+
+    @Override
+    public Repository getRepository() {
+      return repository;
+    }
+
+    @Override
+    public Path getPath() {
+      return path;
+    }
+
+    @Override
+    public UmpleImportType getImportType() {
+      return UmpleImportType.ECORE;
+    }
+
+    @Override
+    public Optional<ImportAttrib> getAttribLoc() {
+      return Optional.empty();
+    }
+
+    @Override
+    public String get() {
+      return "";
+    }
+  }
+
+  private static Stream<ImportEntity> entities(final Repository repository, final int count) {
+    return IntStream.range(0, count).mapToObj(i -> new Entity(repository, repository.getName() + "/" + i));
+  }
+
+  private static Set<String> paths(final Stream<ImportEntity> entities) {
+    return entities.map(e -> e.getPath().toString()).collect(Collectors.toSet());
+  }
+
+  public void discoversEveryRepository() {
+    final List<Repository> repos = ImmutableList.of(new NamedRepository("a"), new NamedRepository("b"),
+        new NamedRepository("empty"));
+
+    try (RepositoryDiscovery discovery = new RepositoryDiscovery(2)) {
+      final Set<String> found = paths(discovery.discover(repos,
+          r -> entities(r, "empty".equals(r.getName()) ? 0 : 5)));
+
+      assertEquals(found.size(), 10);
+      assertTrue(found.containsAll(ImmutableSet.of("a/0", "a/4", "b/0", "b/4")));
+    }
+  }
+
+  public void slowRepositoryDoesNotBlockOthers() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Repository> repos = ImmutableList.of(new NamedRepository("slow"), new NamedRepository("fast"));
+
+    try (RepositoryDiscovery discovery = new RepositoryDiscovery(RepositoryDiscovery.DEFAULT_CAPACITY)) {
+      final Stream<ImportEntity> found = discovery.discover(repos, r -> {
+        if ("slow".equals(r.getName())) {
+          try {
+            // only finishes once an entity of the fast repository was consumed
+            assertTrue(release.await(10, TimeUnit.SECONDS), "Fast repository was not consumed first.");
+          } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+          }
+        }
+
+        return entities(r, 1);
+      });
+
+      final List<String> order = found.peek(e -> release.countDown())
+          .map(e -> e.getRepository().getName())
+          .collect(Collectors.toList());
+
+      assertEquals(order, ImmutableList.of("fast", "slow"));
+    }
+  }
+
+  public void failedRepositoryIsSkipped() {
+    final List<Repository> repos = ImmutableList.of(new NamedRepository("ok"), new NamedRepository("broken"));
+
+    try (RepositoryDiscovery discovery = new RepositoryDiscovery(RepositoryDiscovery.DEFAULT_CAPACITY)) {
+      final Set<String> found = paths(discovery.discover(repos, r -> {
+        if ("broken".equals(r.getName())) {
+          return Stream.concat(entities(r, 1), Stream.<ImportEntity>of((ImportEntity) null).map(e -> {
+            throw new IllegalStateException("Index is broken.");
+          }));
+        }
+
+        return entities(r, 2);
+      }));
+
+      assertEquals(found, ImmutableSet.of("ok/0", "ok/1", "broken/0"));
+    }
+  }
+
+  @Test(timeOut = 10_000)
+  public void errorEndsRepository() {
+    final List<Repository> repos = ImmutableList.of(new NamedRepository("ok"), new NamedRepository("overflow"));
+
+    try (RepositoryDiscovery discovery = new RepositoryDiscovery(RepositoryDiscovery.DEFAULT_CAPACITY)) {
+      final Set<String> found = paths(discovery.discover(repos, r -> {
+        if ("overflow".equals(r.getName())) {
+          throw new StackOverflowError("Index is too deep.");
+        }
+
+        return entities(r, 2);
+      }));
+
+      assertEquals(found, ImmutableSet.of("ok/0", "ok/1"));
+    }
+  }
+
+  public void closeStopsDiscovery() throws InterruptedException {
+    final AtomicReference<Thread> producer = new AtomicReference<>();
+    final List<Repository> repos = ImmutableList.of(new NamedRepository("endless"));
+
+    final RepositoryDiscovery discovery = new RepositoryDiscovery(1);
+    final Stream<ImportEntity> found = discovery.discover(repos, r -> {
+      producer.set(Thread.currentThread());
+      return Stream.generate(() -> new Entity(r, "x"));
+    });
+
+    assertEquals(found.limit(3).count(), 3L);
+
+    // the producer is blocked on the full queue, closing interrupts it
+    discovery.close();
+    producer.get().join(TimeUnit.SECONDS.toMillis(5));
+    assertFalse(producer.get().isAlive(), "Discovery thread is still running.");
+  }
+}
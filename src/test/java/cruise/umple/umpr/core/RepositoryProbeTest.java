@@ -0,0 +1,155 @@
+package cruise.umple.umpr.core;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import cruise.umple.umpr.core.entities.ImportEntity;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+@Test
+public class RepositoryProbeTest {
+
+  private static final long TTL = TimeUnit.HOURS.toMillis(1);
+
+  /**
+   * {@link Repository} that takes {@code delay} milliseconds to respond to a probe.
+   */
+  private static class ProbedRepository implements Repository {
+
+    private final String name;
+    private final long delay;
+    private final boolean accessible;
+
+    final AtomicInteger probes = new AtomicInteger();
+
+    ProbedRepository(final String name, final long delay, final boolean accessible) {
+      this.name = name;
+      this.delay = delay;
+      this.accessible = accessible;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getDescription() {
+      return name;
+    }
+
+    @Override
+    public Optional<URL> getRemoteLoc() {
+      return Optional.empty();
+    }
+
+    @Override
+    public License getLicense() {
+      return License.MIT;
+    }
+
+    @Override
+    public DiagramType getDiagramType() {
+      return DiagramType.CLASS;
+    }
+
+    @Override
+    public Stream<ImportEntity> getImports() {
+      return Stream.empty();
+    }
+
+    @Override
+    public boolean isAccessible() {
+      probes.incrementAndGet();
+
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException ie) {
+        return false;
+      }
+
+      return accessible;
+    }
+  }
+
+  private static List<String> names(final List<Repository> repositories) {
+    return repositories.stream().map(Repository::getName).collect(Collectors.toList());
+  }
+
+  public void probesConcurrently() {
+    final List<Repository> repos = ImmutableList.of(new ProbedRepository("a", 500, true),
+        new ProbedRepository("b", 500, false), new ProbedRepository("c", 500, true));
+
+    final long start = System.nanoTime();
+    final List<Repository> accessible = new RepositoryProbe(Optional.empty(), TTL, 5_000).probe(repos);
+    final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertEquals(names(accessible), ImmutableList.of("a", "c"));
+    assertTrue(elapsed < 1_400, "Probes did not run concurrently: " + elapsed + "ms");
+  }
+
+  public void deadlineSkipsSlowRepositories() {
+    final List<Repository> repos = ImmutableList.of(new ProbedRepository("fast", 0, true),
+        new ProbedRepository("slow", 60_000, true));
+
+    final long start = System.nanoTime();
+    final List<Repository> accessible = new RepositoryProbe(Optional.empty(), TTL, 500).probe(repos);
+    final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertEquals(names(accessible), ImmutableList.of("fast"));
+    assertTrue(elapsed < 5_000, "Probe did not respect the deadline: " + elapsed + "ms");
+  }
+
+  public void cachedAcrossRuns() throws IOException {
+    final Path cache = Files.createTempDirectory("TEST_PROBE_").resolve("probe.properties");
+
+    final ProbedRepository up = new ProbedRepository("up", 0, true);
+    final ProbedRepository down = new ProbedRepository("down", 0, false);
+    final List<Repository> repos = ImmutableList.of(up, down);
+
+    final RepositoryProbe first = new RepositoryProbe(Optional.of(cache), TTL, 1_000);
+    first.probe(repos);
+    first.save();
+
+    final RepositoryProbe second = new RepositoryProbe(Optional.of(cache), TTL, 1_000);
+    assertEquals(names(second.probe(repos)), ImmutableList.of("up"));
+
+    assertEquals(up.probes.get(), 1, "Reachable repository was probed again.");
+    assertEquals(down.probes.get(), 2, "Inaccessible repository was not probed again.");
+
+    // a ttl of 0 ignores the cache
+    new RepositoryProbe(Optional.of(cache), 0, 1_000).probe(repos);
+    assertEquals(up.probes.get(), 2);
+  }
+
+  public void discoveryProvesReachability() {
+    final ProbedRepository repo = new ProbedRepository("discovered", 0, true);
+    final RepositoryProbe probe = new RepositoryProbe(Optional.empty(), TTL, 1_000);
+
+    assertFalse(probe.isKnownReachable(repo));
+
+    assertEquals(probe.discover(repo).count(), 0L);
+    assertFalse(probe.isKnownReachable(repo), "Discovering nothing proved reachability.");
+
+    probe.markReachable(repo);
+    assertTrue(probe.isKnownReachable(repo));
+
+    assertEquals(names(probe.probe(ImmutableList.of(repo))), ImmutableList.of("discovered"));
+    assertEquals(repo.probes.get(), 0, "Repository proven reachable was probed.");
+  }
+}
@@ -0,0 +1,97 @@
+package cruise.umple.umpr.core;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.entities.ImportEntityFactory;
+import cruise.umple.umpr.core.fixtures.MockModule;
+import cruise.umple.umpr.core.fixtures.SyntheticZooServer;
+import cruise.umple.umpr.core.repositories.SyntheticRepository;
+
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+
+/**
+ * Runs {@link ConsoleMain} end-to-end against a {@link SyntheticZooServer} and reports the files imported per second,
+ * the peak heap and the time spent in each {@link ImportFSM.State}. The scale is set with system properties:
+ * {@code umpr.scale.models} (default 2000), {@code umpr.scale.size} (classes or states per model, default 50) and
+ * {@code umpr.scale.type} ({@code ECORE} or {@code SCXML}).
+ */
+@Guice(modules={MockModule.class})
+@Test(groups={"long-runtime"})
+public class ScaleBenchmarkTest {
+
+  private static final int MODELS = Integer.getInteger("umpr.scale.models", 2_000);
+  private static final int SIZE = Integer.getInteger("umpr.scale.size", 50);
+  private static final UmpleImportType TYPE = "SCXML".equalsIgnoreCase(System.getProperty("umpr.scale.type"))
+      ? UmpleImportType.SCXML : UmpleImportType.ECORE;
+
+  @Inject
+  private Logger logger;
+
+  @Inject
+  private DocumentFactory documentFactory;
+
+  @Inject
+  private ImportEntityFactory entityFactory;
+
+  private static List<MemoryPoolMXBean> heapPools() {
+    return ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .collect(Collectors.toList());
+  }
+
+  public void endToEnd() throws IOException {
+    try (SyntheticZooServer server = new SyntheticZooServer(TYPE, MODELS, SIZE)) {
+      final ConsoleMain main = new ConsoleMain(logger,
+          ImmutableSet.of(new SyntheticRepository(documentFactory, entityFactory, server)));
+
+      final ConsoleMain.Config cfg = new ConsoleMain.Config();
+      cfg.outputFolder = Files.createTempDirectory("BENCH_SCALE_").toFile();
+
+      System.gc();
+      heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+
+      final long start = System.nanoTime();
+      final Set<ImportResult> results = main.run(cfg);
+      final long elapsed = System.nanoTime() - start;
+
+      // the sum of the peaks of each pool, the pools may peak at different times so this is an upper bound
+      final long peakHeap = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+      final Map<ImportFSM.State, long[]> stages = new EnumMap<>(ImportFSM.State.class);
+      results.forEach(result -> result.getStageMetrics().forEach((state, metrics) -> {
+        final long[] totals = stages.computeIfAbsent(state, s -> new long[2]);
+        totals[0] += metrics.getWallNanos();
+        totals[1] += 1;
+      }));
+
+      final StringBuilder report = new StringBuilder(String.format(
+          "%d %s models of size %d: %d succeeded in %d ms, %.1f files/s, peak heap %d MB",
+          MODELS, TYPE, SIZE, results.stream().filter(ImportResult::isSuccessful).count(),
+          TimeUnit.NANOSECONDS.toMillis(elapsed), results.size() / (elapsed / 1e9), peakHeap / (1024 * 1024)));
+      stages.forEach((state, totals) -> report.append(String.format("%n  %-10s total %8d ms, mean %8.3f ms",
+          state, TimeUnit.NANOSECONDS.toMillis(totals[0]), totals[0] / 1e6 / totals[1])));
+
+      logger.info(report.toString());
+
+      assertEquals(results.size(), MODELS, "Not every model was imported.");
+    }
+  }
+}
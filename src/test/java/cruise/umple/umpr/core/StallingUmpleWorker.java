@@ -0,0 +1,45 @@
+package cruise.umple.umpr.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import cruise.umple.compiler.UmpleImportType;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Child of an {@link UmpleWorkerPool} that never replies to an import of {@link #STALL}, like a compiler stuck on a
+ * file, and imports anything else as {@link #UMPLE}.
+ */
+final class StallingUmpleWorker {
+
+  private StallingUmpleWorker() {
+  }
+
+  static final String STALL = "<stall/>";
+
+  static final String UMPLE = "class Imported { name; }\n";
+
+  public static void main(final String[] args) throws IOException {
+    UmpleWorker.run(args, new UmpleWorker.Compiler() {
+      @Override
+      public String importUmple(final UmpleImportType type, final InputStream in) throws Exception {
+        if (new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8).equals(STALL)) {
+          // ignores interrupts, only stopping the JVM ends it
+          while (true) {
+            Thread.sleep(Long.MAX_VALUE);
+          }
+        }
+
+        return UMPLE;
+      }
+
+      @Override
+      public void model(final Path file) throws Exception {
+        UmpleWorker.LOCAL.model(file);
+      }
+    });
+  }
+}
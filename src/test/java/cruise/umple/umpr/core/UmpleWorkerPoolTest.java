@@ -0,0 +1,107 @@
+package cruise.umple.umpr.core;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.fixtures.SyntheticZooServer;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.io.ByteSource;
+
+@Test
+public class UmpleWorkerPoolTest {
+
+  private Path workingDir;
+
+  @BeforeMethod
+  public void beforeMethod() throws IOException {
+    workingDir = Files.createTempDirectory("TEST_WORKERS_");
+  }
+
+  @AfterMethod
+  public void afterMethod() {
+    FileUtils.deleteQuietly(workingDir.toFile());
+  }
+
+  private Path umpleFile() throws IOException {
+    return Files.write(workingDir.resolve("Model.ump"), "class Model { name; }\n".getBytes(StandardCharsets.UTF_8));
+  }
+
+  public void reusesWorker() throws Exception {
+    try (UmpleWorkerPool pool = new UmpleWorkerPool(1, 64, false)) {
+      final Path file = umpleFile();
+      pool.model(file);
+      pool.model(file);
+
+      assertEquals(pool.getStarted(), 1, "Worker was not reused.");
+    }
+  }
+
+  public void importsInWorker() throws Exception {
+    try (UmpleWorkerPool pool = new UmpleWorkerPool(1, 64, true)) {
+      final String umple = pool.importUmple(UmpleImportType.ECORE,
+          ByteSource.wrap(SyntheticZooServer.ecore("workers", 3).getBytes(StandardCharsets.UTF_8)));
+
+      assertTrue(umple.contains("Class2"), umple);
+    }
+  }
+
+  public void failureKeepsWorker() throws Exception {
+    try (UmpleWorkerPool pool = new UmpleWorkerPool(1, 64, false)) {
+      try {
+        pool.importUmple(UmpleImportType.ECORE, ByteSource.wrap("not a model".getBytes(StandardCharsets.UTF_8)));
+        fail("Import of invalid content succeeded.");
+      } catch (UmpleWorkerPool.WorkerFailure expected) {
+        // reported by the worker
+      }
+
+      pool.model(umpleFile());
+
+      assertEquals(pool.getStarted(), 1, "Worker was restarted after a reported failure.");
+      assertEquals(pool.getCrashed(), 0);
+    }
+  }
+
+  public void restartsCrashedWorker() throws Exception {
+    try (UmpleWorkerPool pool = new UmpleWorkerPool(1, 16, false)) {
+      // more content than the worker's heap can hold, it exits on the OutOfMemoryError
+      try {
+        pool.importUmple(UmpleImportType.ECORE, ByteSource.wrap(new byte[64 * 1024 * 1024]));
+        fail("Worker did not run out of heap.");
+      } catch (UmpleWorkerPool.WorkerCrashedException expected) {
+        // the file fails, not the pool
+      }
+
+      pool.model(umpleFile());
+
+      assertEquals(pool.getCrashed(), 1);
+      assertEquals(pool.getStarted(), 2, "Crashed worker was not replaced.");
+    }
+  }
+
+  public void chargesWorkerCpu() throws Exception {
+    try (UmpleWorkerPool pool = new UmpleWorkerPool(1, 64, false)) {
+      final Path file = umpleFile();
+
+      final long ownStart = StageMetrics.cpuTime();
+      final StageMetrics.Timer timer = StageMetrics.start();
+      pool.model(file);
+      final StageMetrics metrics = timer.stop(0, 0);
+      final long own = StageMetrics.cpuTime() - ownStart;
+
+      // the caller only waits on the child, the child loads and runs the compiler
+      assertTrue(metrics.getCpuNanos() > own, "Worker CPU time was not charged: " + metrics + ", own " + own);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package cruise.umple.umpr.core.consistent;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.DiagramType;
+import cruise.umple.umpr.core.ImportAttrib;
+import cruise.umple.umpr.core.ImportFSM;
+import cruise.umple.umpr.core.License;
+import cruise.umple.umpr.core.fixtures.MockModule;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Inject;
+
+/**
+ * Compares the streaming {@link Consistents.ImportRepositorySetDeserializer} against the tree based approach it
+ * replaced, which read the whole document with {@link ObjectMapper#readTree(String)} and searched it with
+ * {@link JsonNode#findValue(String)}. Both build the same {@link ImportRepositorySet}, so the difference is the cost of
+ * reading the document.
+ */
+@Guice(modules={MockModule.class})
+@Test(groups={"long-runtime"})
+public class ConsistentsBenchmarkTest {
+
+  private static final int REPOSITORIES = 10;
+  private static final int FILES = 50_000;
+
+  private static final int WARMUP = 2;
+  private static final int ITERATIONS = 5;
+
+  @Inject
+  private ConsistentsFactory factory;
+
+  @Inject
+  private Logger logger;
+
+  private String json;
+
+  @BeforeClass
+  public void createDocument() throws IOException {
+    final ConsistentsBuilder bld = factory.create(Files.createTempDirectory("TEST_UMP_"),
+        Files.createTempDirectory("TEST_SRC_"));
+
+    for (int r = 0; r < REPOSITORIES; ++r) {
+      final ConsistentRepositoryBuilder rbld = bld.withRepository("repository-" + r, DiagramType.CLASS,
+          "Benchmark repository " + r, Optional.empty(), License.MIT);
+
+      for (int f = 0; f < FILES / REPOSITORIES; ++f) {
+        final String path = "file-" + f + ".ecore";
+        final Optional<String> hash = Optional.of(Integer.toHexString(path.hashCode()));
+
+        if (f % 3 == 0) {
+          rbld.addFailedFile(path, UmpleImportType.ECORE, Optional.of(ImportAttrib.raw("http://example.com/" + path)),
+              ImportFSM.State.Model, "Failed to model " + path, hash);
+        } else {
+          rbld.addSuccessFile(path, UmpleImportType.ECORE, Optional.empty(), hash);
+        }
+      }
+
+      rbld.withCalculatedSuccessRate();
+    }
+
+    json = Consistents.toJson(bld.getRepositorySet());
+  }
+
+  /**
+   * The tree based deserializer this benchmark compares against.
+   */
+  private ImportRepositorySet treeDeserialize(final String data) throws IOException {
+    final JsonNode root = new ObjectMapper().readTree(data);
+
+    final ConsistentsBuilder bld = factory.create(Paths.get(root.findValue("umple").asText()),
+        Paths.get(root.findValue("src").asText()));
+
+    for (JsonNode node : root.path("repositories")) {
+      final ConsistentRepositoryBuilder rbld = bld.withRepository(node.findValue("name").asText(), DiagramType.CLASS,
+          node.findValue("description").asText(), Optional.empty(),
+          License.valueOf(node.findValue("license").asText()));
+
+      for (JsonNode fnode : node.path("files")) {
+        final String path = fnode.findValue("path").asText();
+        final ImportFSM.State lastState = ImportFSM.State.valueOf(fnode.findValue("lastState").asText());
+        final Optional<String> hash = Optional.of(fnode.findValue("hash").asText());
+
+        Optional<ImportAttrib> attrib = Optional.empty();
+        if (fnode.has("attrib")) {
+          final JsonNode attr = fnode.findValue("attrib");
+          attrib = Optional.of(ImportAttrib.raw(attr.findValue("url").asText()));
+        }
+
+        if (fnode.findValue("successful").asBoolean(false)) {
+          rbld.addSuccessFile(path, UmpleImportType.ECORE, attrib, hash);
+        } else {
+          rbld.addFailedFile(path, UmpleImportType.ECORE, attrib, lastState, fnode.findValue("message").asText(),
+              hash);
+        }
+      }
+
+      rbld.withCalculatedSuccessRate();
+    }
+
+    return bld.getRepositorySet();
+  }
+
+  /**
+   * @return Best time of {@link #ITERATIONS} runs after {@link #WARMUP} runs, in nanoseconds.
+   */
+  private static long time(final Supplier<ImportRepositorySet> run) {
+    for (int i = 0; i < WARMUP; ++i) {
+      run.get();
+    }
+
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < ITERATIONS; ++i) {
+      final long start = System.nanoTime();
+      final ImportRepositorySet set = run.get();
+      best = Math.min(best, System.nanoTime() - start);
+
+      assertEquals(set.getRepositories().stream().mapToInt(ImportRepository::numberOfFiles).sum(), FILES);
+    }
+
+    return best;
+  }
+
+  public void streamingIsFaster() {
+    final long tree = time(() -> {
+      try {
+        return treeDeserialize(json);
+      } catch (IOException ioe) {
+        throw new IllegalStateException(ioe);
+      }
+    });
+    final long streaming = time(() -> Consistents.fromJson(json));
+
+    logger.info(String.format("Deserialized %d files: tree=%.1fms, streaming=%.1fms (%.2fx)", FILES,
+        tree / 1e6, streaming / 1e6, (double)tree / streaming));
+
+    assertTrue(streaming < tree, "Streaming deserializer was not faster than the tree deserializer.");
+  }
+}
@@ -7,10 +7,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Set;
 
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.DiagramType;
 import cruise.umple.umpr.core.ImportFSM;
+import cruise.umple.umpr.core.License;
 import cruise.umple.umpr.core.Repository;
+import cruise.umple.umpr.core.StageMetrics;
 import cruise.umple.umpr.core.fixtures.MockModule;
 import cruise.umple.umpr.core.repositories.TestRepository;
 
@@ -19,6 +24,9 @@ import org.testng.annotations.Guice;
 import org.testng.annotations.Test;
 
 import com.codepoetics.protonpack.StreamUtils;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.google.inject.Inject;
@@ -80,6 +88,20 @@ public class ConsistentsTest {
       .assertEquals("$.repositories[0].files", Collections.<ImportFile>emptyList()); 
   }
   
+  @Test
+  public void toJsonFile() throws IOException {
+    repos.forEach(r -> bld.withRepository(r).withCalculatedSuccessRate());
+    
+    final ImportRepositorySet fromBld = bld.getRepositorySet();
+    final Path out = TEST_UMP_DIR.resolve("meta.json");
+    
+    // replaces existing content
+    Files.write(out, "stale".getBytes(Charsets.UTF_8));
+    Consistents.toJson(fromBld, out);
+    
+    assertEquals(new String(Files.readAllBytes(out), Charsets.UTF_8), Consistents.toJson(fromBld));
+  }
+  
   @Test
   public void toJsonImportFile() {
     repos.forEach(r -> {
@@ -88,6 +110,7 @@ public class ConsistentsTest {
       r.getImports().forEach(e -> {
         final ImportFSM fsm = new ImportFSM(Paths.get(TEST_UMP_DIR.toString(), r.getName(), e.getPath().toString()), 
             e.getImportType(), e, e.getRepository(), e.getAttribLoc());
+        fsm.run();
         
         if (fsm.isSuccessful()) {
           rbld.addSuccessFile(fsm.getOutputPath().toString(), fsm.getImportType(), fsm.getAttribLoc());
@@ -131,12 +154,120 @@ public class ConsistentsTest {
     
   }
   
+  public void stageMetricsRoundTrip() {
+    final ConsistentRepositoryBuilder rbld = bld.withRepository("stages", DiagramType.CLASS, "", Optional.empty(), 
+        License.MIT);
+    
+    // wall times 1..100, the fetch of the first file was not measured
+    for (int i = 1; i <= 100; ++i) {
+      rbld.addSuccessFile(i + ".ecore", UmpleImportType.ECORE, Optional.empty(), Optional.empty(), 
+          ImmutableMap.of(ImportFSM.State.Fetch, new StageMetrics(i, i == 1 ? -1 : i * 2, 10, 10), 
+              ImportFSM.State.Import, new StageMetrics(i, i, 10, 20)));
+    }
+    rbld.addFailedFile("failed.ecore", UmpleImportType.ECORE, Optional.empty(), ImportFSM.State.Fetch, "oops");
+    rbld.withCalculatedSuccessRate().withCalculatedStageSummaries();
+    
+    final String json = Consistents.toJson(bld.getRepositorySet());
+    
+    JsonAssert.with(json)
+      .assertEquals("$.repositories[0].stages.Fetch.count", 100)
+      .assertEquals("$.repositories[0].stages.Fetch.wallNanos.p50", 50)
+      .assertEquals("$.repositories[0].stages.Fetch.wallNanos.p95", 95)
+      .assertEquals("$.repositories[0].stages.Fetch.wallNanos.p99", 99)
+      .assertEquals("$.repositories[0].stages.Fetch.wallNanos.max", 100)
+      .assertEquals("$.repositories[0].stages.Fetch.cpuNanos.max", 200)
+      .assertEquals("$.repositories[0].stages.Import.outputBytes.p50", 20)
+      .assertNotDefined("$.repositories[0].stages.Model")
+      .assertEquals("$.repositories[0].files[0].stages.Fetch.cpuNanos", -1)
+      .assertEquals("$.repositories[0].files[0].stages.Import.outputBytes", 20)
+      .assertNotDefined("$.repositories[0].files[100].stages");
+    
+    final ImportRepository repo = Consistents.fromJson(json).getRepository(0);
+    assertEquals(repo.getFile(1).getStageMetrics().get(ImportFSM.State.Fetch), new StageMetrics(2, 4, 10, 10));
+    
+    final StageSummary fetch = repo.getStageSummaries().get(ImportFSM.State.Fetch);
+    assertEquals(fetch.getCount(), 100);
+    assertEquals(fetch.getWallNanos().getP95(), 95);
+    assertEquals(fetch.getCpuNanos().getP50(), 102, "Unmeasured values should be ignored.");
+  }
+  
+  public void mergeShards() throws IOException {
+    final ConsistentsBuilder shard0 = factory.create(TEST_UMP_DIR, TEST_UMP_DIR);
+    shard0.withRepository("zoo", DiagramType.CLASS, "desc", Optional.empty(), License.MIT)
+      .addSuccessFile("a.ecore", UmpleImportType.ECORE, Optional.empty(), Optional.of("hash-a"))
+      .addSuccessFile("b.ecore", UmpleImportType.ECORE, Optional.empty())
+      .addSuccessFile("c.ecore", UmpleImportType.ECORE, Optional.empty())
+      .addFailedFile("d.ecore", UmpleImportType.ECORE, Optional.empty(), ImportFSM.State.Import, "oops")
+      .withCalculatedSuccessRate();
+    
+    final ConsistentsBuilder shard1 = factory.create(TEST_UMP_DIR, TEST_UMP_DIR);
+    shard1.withRepository("zoo", DiagramType.CLASS, "desc", Optional.empty(), License.MIT)
+      .addSuccessFile("e.ecore", UmpleImportType.ECORE, Optional.empty())
+      .addFailedFile("f.ecore", UmpleImportType.ECORE, Optional.empty(), ImportFSM.State.Fetch, "gone")
+      .addFailedFile("a.ecore", UmpleImportType.ECORE, Optional.empty(), ImportFSM.State.Fetch, "duplicate")
+      .withCalculatedSuccessRate();
+    shard1.withRepository("other", DiagramType.STATE, "", Optional.empty(), License.MIT)
+      .addFailedFile("g.scxml", UmpleImportType.SCXML, Optional.empty(), ImportFSM.State.Model, "bad")
+      .withCalculatedSuccessRate();
+    
+    final Path meta0 = TEST_UMP_DIR.resolve("meta-0.json");
+    final Path meta1 = TEST_UMP_DIR.resolve("meta-1.json");
+    Consistents.toJson(shard0.getRepositorySet(), meta0);
+    Consistents.toJson(shard1.getRepositorySet(), meta1);
+    
+    final ImportRepositorySet merged = Consistents.mergeFiles(TEST_UMP_DIR, TEST_UMP_DIR, 
+        ImmutableList.of(meta0, meta1));
+    
+    assertEquals(merged.numberOfRepositories(), 2);
+    
+    final ImportRepository zoo = merged.getRepository(0);
+    assertEquals(zoo.getName(), "zoo");
+    assertEquals(zoo.numberOfFiles(), 6, "Duplicate file should only be kept once.");
+    assertEquals(zoo.getSuccessRate(), 4.0 / 6, 1e-9, "Success rate should be recalculated over all files.");
+    assertEquals(zoo.getFile(0).getHash(), "hash-a");
+    assertEquals(zoo.getFile(0).getLastState(), ImportFSM.State.Completed);
+    assertEquals(zoo.getFile(5).getMessage(), "gone");
+    
+    final ImportRepository other = merged.getRepository(1);
+    assertEquals(other.getDiagramType(), DiagramType.STATE);
+    assertEquals(other.getSuccessRate(), 0.0, 1e-9);
+  }
+  
+  public void deserializeAnyFieldOrder() {
+    // nested content before the fields required to build it
+    final String json = "{ \"repositories\" : [ { "
+        + "\"files\" : [ { \"successful\" : false, \"message\" : \"oops\", \"lastState\" : \"Import\", "
+        + "  \"type\" : \"ECore\", \"path\" : \"a.ecore\", \"unknown\" : { \"x\" : [ 1 ] } } ], "
+        + "\"name\" : \"repo\", \"description\" : \"desc\", \"diagramType\" : \"class\", "
+        + "\"license\" : \"MIT\" } ], "
+        + "\"umple\" : \"" + TEST_UMP_DIR + "\", \"date\" : 0, \"src\" : \"sources\" }";
+    
+    final ImportRepositorySet fromJson = Consistents.fromJson(json);
+    
+    assertEquals(fromJson.getSrcPath(), Paths.get("sources").toAbsolutePath().toString(),
+        "Source path after the repositories was lost.");
+    assertEquals(fromJson.getRepositories().size(), 1);
+    
+    final ImportRepository repo = fromJson.getRepository(0);
+    assertEquals(repo.getName(), "repo");
+    assertEquals(repo.getLicense(), License.MIT);
+    assertEquals(repo.numberOfFiles(), 1);
+    assertEquals(repo.getFile(0).getPath(), "a.ecore");
+    assertEquals(repo.getFile(0).getLastState(), ImportFSM.State.Import);
+    assertEquals(repo.getFile(0).getMessage(), "oops");
+  }
+  
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "(?s).*Missing field: src.*")
+  public void deserializeMissingSrc() {
+    Consistents.fromJson("{ \"umple\" : \"" + TEST_UMP_DIR + "\", \"repositories\" : [ ] }");
+  }
+  
   public void deserialize() {
     repos.forEach(r -> {
       final ConsistentRepositoryBuilder rbld = bld.withRepository(r);
       
       r.getImports().map(e -> new ImportFSM(Paths.get(TEST_UMP_DIR.toString(), r.getName(), e.getPath().toString()), 
-            e.getImportType(), e, e.getRepository(), e.getAttribLoc())).forEach(rbld::addFSM);
+            e.getImportType(), e, e.getRepository(), e.getAttribLoc())).peek(ImportFSM::run).forEach(rbld::addFSM);
       
       rbld.withCalculatedSuccessRate();
     }); 
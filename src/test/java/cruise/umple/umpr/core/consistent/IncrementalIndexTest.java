@@ -0,0 +1,89 @@
+package cruise.umple.umpr.core.consistent;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.DiagramType;
+import cruise.umple.umpr.core.ImportFSM;
+import cruise.umple.umpr.core.License;
+import cruise.umple.umpr.core.fixtures.MockModule;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import com.google.inject.Inject;
+
+@Guice(modules={MockModule.class})
+@Test
+public class IncrementalIndexTest {
+
+  private static final String REPO = "incremental";
+
+  private final ConsistentsFactory factory;
+
+  private Path umpleDir;
+  private ImportRepositorySet previous;
+
+  @Inject
+  public IncrementalIndexTest(ConsistentsFactory factory) {
+    this.factory = factory;
+  }
+
+  @BeforeMethod
+  public void setup() throws IOException {
+    umpleDir = Files.createTempDirectory("TEST_UMP_");
+
+    final ConsistentsBuilder bld = factory.create(umpleDir, Files.createTempDirectory("TEST_SRC_"));
+    bld.withRepository(REPO, DiagramType.CLASS, "", Optional.empty(), License.MIT)
+      .addSuccessFile("ok.ecore", UmpleImportType.ECORE, Optional.empty(), Optional.of("aaaa"))
+      .addFailedFile("bad.ecore", UmpleImportType.ECORE, Optional.empty(), ImportFSM.State.Model, "oops",
+          Optional.of("bbbb"))
+      .addSuccessFile("nohash.ecore", UmpleImportType.ECORE, Optional.empty());
+
+    // round trip through the serialized form to make sure the hash is kept
+    previous = Consistents.fromJson(Consistents.toJson(bld.getRepositorySet()));
+
+    Files.createDirectories(umpleDir.resolve(REPO));
+    Files.createFile(umpleDir.resolve(REPO).resolve("ok.ecore.ump"));
+  }
+
+  public void findUnchanged() {
+    final IncrementalIndex index = IncrementalIndex.of(previous, umpleDir);
+
+    assertEquals(index.size(), 2, "Files without a hash should not be indexed.");
+
+    assertTrue(index.findUnchanged(REPO, "ok.ecore", "aaaa").isPresent());
+    assertEquals(index.findUnchanged(REPO, "bad.ecore", "bbbb").get().getMessage(), "oops");
+
+    assertFalse(index.findUnchanged(REPO, "ok.ecore", "cccc").isPresent(), "Changed content was reused.");
+    assertFalse(index.findUnchanged("other", "ok.ecore", "aaaa").isPresent(), "Wrong repository was reused.");
+  }
+
+  public void missingOutputIsNotReused() throws IOException {
+    Files.delete(umpleDir.resolve(REPO).resolve("ok.ecore.ump"));
+
+    assertFalse(IncrementalIndex.of(previous, umpleDir).findUnchanged(REPO, "ok.ecore", "aaaa").isPresent());
+  }
+
+  public void duplicateFileKeepsFirst() throws IOException {
+    final ConsistentsBuilder bld = factory.create(umpleDir, Files.createTempDirectory("TEST_SRC_"));
+    bld.withRepository(REPO, DiagramType.CLASS, "", Optional.empty(), License.MIT)
+      .addSuccessFile("ok.ecore", UmpleImportType.ECORE, Optional.empty(), Optional.of("aaaa"))
+      .addSuccessFile("ok.ecore", UmpleImportType.ECORE, Optional.empty(), Optional.of("dddd"));
+
+    final IncrementalIndex index = IncrementalIndex.of(bld.getRepositorySet(), umpleDir);
+
+    assertEquals(index.size(), 1);
+    assertTrue(index.findUnchanged(REPO, "ok.ecore", "aaaa").isPresent(), "First entry was not kept.");
+    assertFalse(index.findUnchanged(REPO, "ok.ecore", "dddd").isPresent());
+  }
+
+}
@@ -0,0 +1,205 @@
+package cruise.umple.umpr.core.fixtures;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.util.Networks;
+
+import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for a model repository website. Serves an AtlanZoo-style index page, {@code /index}, that links to
+ * {@code models} generated models of {@code size} classes (Ecore) or states (SCXML) each, under {@code /models/}.
+ * Models are generated on request and are the same for the same name and size, thus a server of any scale costs no
+ * memory.
+ *
+ * @since Oct 18, 2026
+ */
+public final class SyntheticZooServer implements AutoCloseable {
+
+  private static final String INDEX = "/index";
+  private static final String MODELS = "/models/";
+
+  private final UmpleImportType type;
+  private final int models;
+  private final int size;
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  /**
+   * Starts a server on a free local port.
+   *
+   * @param type {@link UmpleImportType#ECORE} or {@link UmpleImportType#SCXML}
+   * @param models Number of models linked from the index
+   * @param size Number of classes or states of each model
+   * @throws IOException if the server could not be started.
+   */
+  public SyntheticZooServer(final UmpleImportType type, final int models, final int size) throws IOException {
+    checkArgument(type == UmpleImportType.ECORE || type == UmpleImportType.SCXML, "Unsupported type: %s", type);
+    checkArgument(models >= 0, "models must not be negative: %s", models);
+    checkArgument(size > 0, "size must be positive: %s", size);
+
+    this.type = checkNotNull(type);
+    this.models = models;
+    this.size = size;
+
+    executor = Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder().setNameFormat("synthetic-zoo-%d").setDaemon(true).build());
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(executor);
+    server.createContext(INDEX, ex -> respond(ex, index()));
+    server.createContext(MODELS, ex -> {
+      final String name = ex.getRequestURI().getPath().substring(MODELS.length());
+      final String model = name.substring(0, Math.max(0, name.length() - getExtension().length() - 1));
+      if (!name.endsWith("." + getExtension()) || model.isEmpty()) {
+        ex.sendResponseHeaders(404, -1);
+        ex.close();
+      } else {
+        respond(ex, type == UmpleImportType.ECORE ? ecore(model, size) : scxml(model, size));
+      }
+    });
+
+    server.start();
+  }
+
+  private static void respond(final HttpExchange ex, final String body) throws IOException {
+    if ("HEAD".equals(ex.getRequestMethod())) {
+      ex.sendResponseHeaders(200, -1);
+      ex.close();
+      return;
+    }
+
+    final byte[] bytes = body.getBytes(Charsets.UTF_8);
+    ex.sendResponseHeaders(200, bytes.length);
+    try (OutputStream out = ex.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  public UmpleImportType getType() {
+    return type;
+  }
+
+  public int getModels() {
+    return models;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * @return File extension of the served models.
+   */
+  public String getExtension() {
+    return type == UmpleImportType.ECORE ? "ecore" : "scxml";
+  }
+
+  /**
+   * @return {@link URL} of the index page.
+   */
+  public URL getIndexUrl() {
+    return Networks.newURL("http://localhost:" + server.getAddress().getPort() + INDEX);
+  }
+
+  /**
+   * @param index Index of the model, from {@code 0} to {@link #getModels()}
+   * @return {@link URL} of a model.
+   */
+  public URL getModelUrl(final int index) {
+    return Networks.newURL("http://localhost:" + server.getAddress().getPort() + MODELS + "model-" + index + "."
+        + getExtension());
+  }
+
+  /**
+   * Creates the index page, laid out like the AtlanZoo: an anchor naming each model followed by a list with its
+   * download link.
+   */
+  private String index() {
+    final StringBuilder out = new StringBuilder("<html><body><div id=\"bodyContent\">\n");
+    for (int i = 0; i < models; ++i) {
+      out.append("<a name=\"model-").append(i).append("\"></a><h3>model-").append(i).append("</h3>\n")
+          .append("<ul><li><a class=\"external text\" href=\"").append(getModelUrl(i)).append("\">model-")
+          .append(i).append('.').append(getExtension()).append("</a></li></ul>\n");
+    }
+
+    return out.append("</div></body></html>\n").toString();
+  }
+
+  /**
+   * Generates an Ecore package of {@code classes} classes, each with an attribute, a reference to the next class and,
+   * except the first, the previous class as its super type.
+   *
+   * @param name Name of the package
+   * @param classes Number of classes
+   * @return Ecore document.
+   */
+  public static String ecore(final String name, final int classes) {
+    final String pkg = name.replace('-', '_');
+    final StringBuilder out = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+        .append("<ecore:EPackage xmi:version=\"2.0\" xmlns:xmi=\"http://www.omg.org/XMI\" ")
+        .append("xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" ")
+        .append("xmlns:ecore=\"http://www.eclipse.org/emf/2002/Ecore\" name=\"").append(pkg)
+        .append("\" nsURI=\"http://cruise.umple.umpr/synthetic/").append(pkg).append("\" nsPrefix=\"").append(pkg)
+        .append("\">\n");
+
+    for (int c = 0; c < classes; ++c) {
+      out.append("  <eClassifiers xsi:type=\"ecore:EClass\" name=\"Class").append(c).append('"');
+      if (c > 0) {
+        out.append(" eSuperTypes=\"#//Class").append(c - 1).append('"');
+      }
+      out.append(">\n")
+          .append("    <eStructuralFeatures xsi:type=\"ecore:EAttribute\" name=\"attribute").append(c)
+          .append("\" eType=\"ecore:EDataType http://www.eclipse.org/emf/2002/Ecore#//EString\"/>\n")
+          .append("    <eStructuralFeatures xsi:type=\"ecore:EReference\" name=\"next").append(c)
+          .append("\" eType=\"#//Class").append((c + 1) % classes).append("\"/>\n")
+          .append("  </eClassifiers>\n");
+    }
+
+    return out.append("</ecore:EPackage>\n").toString();
+  }
+
+  /**
+   * Generates an SCXML state machine of {@code states} states in a cycle.
+   *
+   * @param name Name of the state machine
+   * @param states Number of states
+   * @return SCXML document.
+   */
+  public static String scxml(final String name, final int states) {
+    final StringBuilder out = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+        .append("<scxml xmlns=\"http://www.w3.org/2005/07/scxml\" version=\"1.0\" name=\"")
+        .append(name.replace('-', '_')).append("\" initial=\"state0\">\n");
+
+    for (int s = 0; s < states; ++s) {
+      out.append("  <state id=\"state").append(s).append("\">\n")
+          .append("    <transition event=\"event").append(s).append("\" target=\"state").append((s + 1) % states)
+          .append("\"/>\n")
+          .append("  </state>\n");
+    }
+
+    return out.append("</scxml>\n").toString();
+  }
+
+  /**
+   * Stops the server.
+   */
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,95 @@
+package cruise.umple.umpr.core.repositories;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.DiagramType;
+import cruise.umple.umpr.core.DocumentFactory;
+import cruise.umple.umpr.core.ImportAttrib;
+import cruise.umple.umpr.core.License;
+import cruise.umple.umpr.core.Repository;
+import cruise.umple.umpr.core.entities.ImportEntity;
+import cruise.umple.umpr.core.entities.ImportEntityFactory;
+import cruise.umple.umpr.core.fixtures.SyntheticZooServer;
+import cruise.umple.umpr.core.util.Networks;
+
+import org.jooq.lambda.Seq;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * {@link Repository} over a {@link SyntheticZooServer}, its index is read the same way as the
+ * {@link AtlanZooRepository} reads the AtlanMod Zoo, thus it measures the engine at any scale without the network.
+ *
+ * @since Oct 18, 2026
+ */
+public class SyntheticRepository implements Repository {
+
+  public static final String NAME = "SyntheticZoo";
+
+  private final DocumentFactory documentFactory;
+  private final ImportEntityFactory entityFactory;
+  private final SyntheticZooServer server;
+
+  public SyntheticRepository(final DocumentFactory documentFactory, final ImportEntityFactory entityFactory,
+      final SyntheticZooServer server) {
+    this.documentFactory = checkNotNull(documentFactory);
+    this.entityFactory = checkNotNull(entityFactory);
+    this.server = checkNotNull(server);
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Generated " + server.getType() + " models served from " + server.getIndexUrl();
+  }
+
+  @Override
+  public Optional<URL> getRemoteLoc() {
+    return Optional.of(server.getIndexUrl());
+  }
+
+  @Override
+  public License getLicense() {
+    return License.MIT;
+  }
+
+  @Override
+  public DiagramType getDiagramType() {
+    return server.getType() == UmpleImportType.SCXML ? DiagramType.STATE : DiagramType.CLASS;
+  }
+
+  @Override
+  public Stream<ImportEntity> getImports() {
+    final String index = server.getIndexUrl().toString();
+    final Optional<Document> doc = documentFactory.fromURL(index);
+    if (!doc.isPresent()) {
+      throw new IllegalStateException("Could not load repository.");
+    }
+
+    final Seq<Element> links = Seq.seq(doc.get().select("#bodyContent ul a.external.text"));
+    final Seq<Element> bases = Seq.seq(doc.get().select("#bodyContent a[name]"));
+
+    return Seq.zip(bases, links).map(t -> {
+      final ImportAttrib attrib = ImportAttrib.ref(index + "#" + t.v1().attr("name"));
+      final URL url = Networks.newURL(t.v2().attr("href"));
+
+      return entityFactory.createUrlEntity(this, Paths.get(url.getPath()).getFileName(), server.getType(), url,
+          Optional.of(attrib));
+    });
+  }
+
+  @Override
+  public boolean isAccessible() {
+    return Networks.ping(server.getIndexUrl().toString(), 1000);
+  }
+}
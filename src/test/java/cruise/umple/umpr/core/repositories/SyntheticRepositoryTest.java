@@ -0,0 +1,62 @@
+package cruise.umple.umpr.core.repositories;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import cruise.umple.compiler.UmpleImportType;
+import cruise.umple.umpr.core.DocumentFactory;
+import cruise.umple.umpr.core.entities.ImportEntity;
+import cruise.umple.umpr.core.entities.ImportEntityFactory;
+import cruise.umple.umpr.core.fixtures.MockModule;
+import cruise.umple.umpr.core.fixtures.SyntheticZooServer;
+
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import com.google.inject.Inject;
+
+/**
+ * Tests that the {@link SyntheticRepository} discovers and fetches every model of a {@link SyntheticZooServer}.
+ */
+@Guice(modules={MockModule.class})
+@Test
+public class SyntheticRepositoryTest {
+
+  @Inject
+  private DocumentFactory documentFactory;
+
+  @Inject
+  private ImportEntityFactory entityFactory;
+
+  private List<ImportEntity> discover(final SyntheticZooServer server) {
+    final SyntheticRepository repository = new SyntheticRepository(documentFactory, entityFactory, server);
+    assertTrue(repository.isAccessible(), "Server was not accessible.");
+
+    return repository.getImports().collect(Collectors.toList());
+  }
+
+  public void servesEcoreModels() throws IOException {
+    try (SyntheticZooServer server = new SyntheticZooServer(UmpleImportType.ECORE, 25, 3)) {
+      final List<ImportEntity> entities = discover(server);
+
+      assertEquals(entities.size(), 25);
+      assertEquals(entities.get(7).getPath().toString(), "model-7.ecore");
+      assertEquals(entities.get(7).getImportType(), UmpleImportType.ECORE);
+      assertEquals(entities.get(7).get(), SyntheticZooServer.ecore("model-7", 3));
+    }
+  }
+
+  public void servesScxmlModels() throws IOException {
+    try (SyntheticZooServer server = new SyntheticZooServer(UmpleImportType.SCXML, 4, 10)) {
+      final List<ImportEntity> entities = discover(server);
+
+      assertEquals(entities.size(), 4);
+      assertEquals(entities.get(0).getImportType(), UmpleImportType.SCXML);
+      assertEquals(entities.get(0).get(), SyntheticZooServer.scxml("model-0", 10));
+    }
+  }
+}
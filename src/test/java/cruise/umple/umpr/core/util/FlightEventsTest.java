@@ -0,0 +1,112 @@
+package cruise.umple.umpr.core.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the events of {@link FlightEvents} are written to a Java Flight Recorder recording.
+ */
+@Test
+public class FlightEventsTest {
+
+  private static final String CONTENT = "<ecore/>";
+
+  private HttpServer server;
+
+  @BeforeClass
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/content", ex -> {
+      final byte[] bytes = CONTENT.getBytes(Charsets.UTF_8);
+      ex.sendResponseHeaders(200, "HEAD".equals(ex.getRequestMethod()) ? -1 : bytes.length);
+      try (OutputStream out = ex.getResponseBody()) {
+        out.write(bytes);
+      }
+      ex.close();
+    });
+
+    server.start();
+  }
+
+  @AfterClass
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  private URL url(final String path) {
+    return Networks.newURL("http://localhost:" + server.getAddress().getPort() + path);
+  }
+
+  private static List<RecordedEvent> record(final String eventName, final Runnable work) throws IOException {
+    final Path file = Files.createTempFile("TEST_JFR_", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(eventName);
+      recording.start();
+      work.run();
+      recording.stop();
+      recording.dump(file);
+    }
+
+    return RecordingFile.readAllEvents(file).stream()
+        .filter(e -> e.getEventType().getName().equals(eventName))
+        .collect(Collectors.toList());
+  }
+
+  public void fetchEvents() throws IOException {
+    assertTrue(FlightEvents.isSupported());
+
+    final URL url = url("/content");
+    final List<RecordedEvent> events = record("cruise.umple.umpr.Fetch", () -> {
+      assertTrue(Networks.ping(url.toString(), 1_000));
+      Networks.newURLDownloader(url, new FetchStatistics("test")).get();
+    });
+
+    assertEquals(events.size(), 2);
+
+    final RecordedEvent ping = events.get(0);
+    assertEquals(ping.getString("method"), "HEAD");
+    assertEquals(ping.getString("url"), url.toString());
+    assertEquals(ping.getInt("status"), 200);
+
+    final RecordedEvent get = events.get(1);
+    assertEquals(get.getString("method"), "GET");
+    assertEquals(get.getInt("status"), 200);
+    assertEquals(get.getLong("bytes"), CONTENT.length());
+  }
+
+  public void stageEvents() throws IOException {
+    final List<RecordedEvent> events = record("cruise.umple.umpr.Stage", () -> {
+      FlightEvents.beginStage("repo", "a.ecore", "ECore", "Fetch").end("Import", true);
+      FlightEvents.beginStage("repo", "a.ecore", "ECore", "Import").end("Import", false);
+    });
+
+    assertEquals(events.size(), 2);
+    assertEquals(events.get(0).getString("repository"), "repo");
+    assertEquals(events.get(0).getString("path"), "a.ecore");
+    assertEquals(events.get(0).getString("importType"), "ECore");
+    assertEquals(events.get(0).getString("from"), "Fetch");
+    assertEquals(events.get(0).getString("to"), "Import");
+    assertTrue(events.get(0).getBoolean("successful"));
+    assertEquals(events.get(1).getBoolean("successful"), false);
+  }
+}
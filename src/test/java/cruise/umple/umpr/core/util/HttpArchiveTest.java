@@ -0,0 +1,108 @@
+package cruise.umple.umpr.core.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Tests for {@link HttpArchive}.
+ */
+@Test
+public class HttpArchiveTest {
+
+  private static final URL FIRST = Networks.newURL("http://www.example.com/first.ecore");
+  private static final URL SECOND = Networks.newURL("http://www.example.com/second.ecore");
+
+  private Path file;
+
+  @BeforeMethod
+  public void setup() throws IOException {
+    file = Files.createTempDirectory("TEST_HTTP_ARCHIVE_").resolve("run.zip");
+  }
+
+  private static String read(final HttpArchive.Exchange exchange) throws IOException {
+    return exchange.getBody().asCharSource(Charsets.UTF_8).read();
+  }
+
+  public void roundTrip() throws IOException {
+    try (HttpArchive archive = HttpArchive.record(file)) {
+      assertFalse(archive.isReplaying());
+
+      archive.put("GET", FIRST, 200, "first".getBytes(Charsets.UTF_8));
+      archive.put("GET", SECOND, 404, "missing".getBytes(Charsets.UTF_8));
+      archive.put("HEAD", FIRST, 200, new byte[0]);
+
+      assertFalse(Files.exists(file), "Archive was written before it was committed.");
+      archive.commit();
+    }
+
+    try (HttpArchive archive = HttpArchive.replay(file)) {
+      assertTrue(archive.isReplaying());
+      assertEquals(archive.size(), 3);
+
+      final HttpArchive.Exchange first = archive.get("GET", FIRST).get();
+      assertEquals(first.getStatus(), 200);
+      assertEquals(read(first), "first");
+
+      assertEquals(archive.get("GET", SECOND).get().getStatus(), 404);
+      assertEquals(read(archive.get("HEAD", FIRST).get()), "");
+      assertFalse(archive.get("HEAD", SECOND).isPresent(), "Exchange that was not recorded was replayed.");
+    }
+  }
+
+  public void keepsFirstResponse() throws IOException {
+    try (HttpArchive archive = HttpArchive.record(file)) {
+      archive.put("GET", FIRST, 200, "before".getBytes(Charsets.UTF_8));
+      archive.put("GET", FIRST, 200, "after".getBytes(Charsets.UTF_8));
+
+      assertEquals(archive.size(), 1);
+      archive.commit();
+    }
+
+    try (HttpArchive archive = HttpArchive.replay(file)) {
+      assertEquals(read(archive.get("GET", FIRST).get()), "before");
+    }
+  }
+
+  public void discardsUncommittedRecording() throws IOException {
+    try (HttpArchive archive = HttpArchive.record(file)) {
+      archive.put("GET", FIRST, 200, "committed".getBytes(Charsets.UTF_8));
+      archive.commit();
+    }
+
+    try (HttpArchive archive = HttpArchive.record(file)) {
+      archive.put("GET", FIRST, 200, "failed run".getBytes(Charsets.UTF_8));
+    }
+
+    try (Stream<Path> files = Files.list(file.getParent())) {
+      assertEquals(files.count(), 1L, "Uncommitted recording was left behind.");
+    }
+
+    try (HttpArchive archive = HttpArchive.replay(file)) {
+      assertEquals(read(archive.get("GET", FIRST).get()), "committed", "Uncommitted recording replaced the archive.");
+    }
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void rejectsOtherZipFiles() throws IOException {
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(file))) {
+      out.putNextEntry(new ZipEntry("other"));
+      out.closeEntry();
+    }
+
+    HttpArchive.replay(file);
+  }
+}
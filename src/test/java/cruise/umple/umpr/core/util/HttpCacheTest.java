@@ -0,0 +1,86 @@
+package cruise.umple.umpr.core.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Tests for {@link HttpCache}.
+ */
+@Test
+public class HttpCacheTest {
+
+  private static final URL FIRST = Networks.newURL("http://www.example.com/first.ecore");
+  private static final URL SECOND = Networks.newURL("http://www.example.com/second.ecore");
+  private static final URL THIRD = Networks.newURL("http://www.example.com/third.ecore");
+
+  private Path dir;
+
+  @BeforeMethod
+  public void setup() throws IOException {
+    dir = Files.createTempDirectory("TEST_HTTP_CACHE_");
+  }
+
+  public void roundTrip() throws IOException {
+    final HttpCache cache = new HttpCache(dir, 1024);
+
+    assertFalse(cache.get(FIRST).isPresent(), "Empty cache returned an entry.");
+
+    cache.put(FIRST, 1234L, Optional.of("\"abc\""), "content".getBytes(Charsets.UTF_8));
+
+    final HttpCache.Entry entry = cache.get(FIRST).get();
+    assertEquals(entry.getUrl(), FIRST);
+    assertEquals(entry.getLastModified(), 1234L);
+    assertEquals(entry.getETag(), Optional.of("\"abc\""));
+    assertEquals(new String(entry.read(), Charsets.UTF_8), "content");
+    assertEquals(cache.size(), "content".length());
+  }
+
+  public void persistsAcrossInstances() throws IOException {
+    new HttpCache(dir, 1024).put(FIRST, 0L, Optional.empty(), new byte[10]);
+
+    final HttpCache reopened = new HttpCache(dir, 1024);
+    assertEquals(reopened.size(), 10L);
+    assertTrue(reopened.get(FIRST).isPresent(), "Entry was not persisted.");
+    assertFalse(reopened.get(FIRST).get().getETag().isPresent());
+  }
+
+  public void replaceUpdatesSize() throws IOException {
+    final HttpCache cache = new HttpCache(dir, 1024);
+
+    cache.put(FIRST, 0L, Optional.empty(), new byte[100]);
+    cache.put(FIRST, 0L, Optional.empty(), new byte[40]);
+
+    assertEquals(cache.size(), 40L);
+  }
+
+  public void evictsLeastRecentlyUsed() throws IOException {
+    final HttpCache cache = new HttpCache(dir, 250);
+
+    cache.put(FIRST, 0L, Optional.empty(), new byte[100]);
+    cache.put(SECOND, 0L, Optional.empty(), new byte[100]);
+
+    // make FIRST older than SECOND, then use it so SECOND is the least recently used
+    Files.setLastModifiedTime(cache.get(SECOND).get().getBody(), FileTime.fromMillis(1000L));
+    Files.setLastModifiedTime(cache.get(FIRST).get().getBody(), FileTime.fromMillis(2000L));
+
+    cache.put(THIRD, 0L, Optional.empty(), new byte[100]);
+
+    assertTrue(cache.get(FIRST).isPresent(), "Recently used entry was evicted.");
+    assertFalse(cache.get(SECOND).isPresent(), "Least recently used entry was kept.");
+    assertTrue(cache.get(THIRD).isPresent(), "New entry was evicted.");
+    assertEquals(cache.size(), 200L);
+  }
+}
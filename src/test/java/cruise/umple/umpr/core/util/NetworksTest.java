@@ -0,0 +1,262 @@
+package cruise.umple.umpr.core.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the conditional requests made by {@link Networks#newURLDownloader(URL, FetchStatistics)} against a local
+ * {@link HttpServer}.
+ */
+@Test
+public class NetworksTest {
+
+  private static final String CONTENT = "<ecore/>";
+  private static final String ETAG = "\"v1\"";
+
+  private HttpServer server;
+  private final AtomicInteger requests = new AtomicInteger();
+
+  private static void respond(final HttpExchange ex, final int code, final String body) throws IOException {
+    final byte[] bytes = body.getBytes(Charsets.UTF_8);
+    ex.sendResponseHeaders(code, code == 304 ? -1 : bytes.length);
+    if (code != 304) {
+      try (OutputStream out = ex.getResponseBody()) {
+        out.write(bytes);
+      }
+    }
+    ex.close();
+  }
+
+  @BeforeClass
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+    server.createContext("/etag", ex -> {
+      requests.incrementAndGet();
+      ex.getResponseHeaders().add("ETag", ETAG);
+      respond(ex, ETAG.equals(ex.getRequestHeaders().getFirst("If-None-Match")) ? 304 : 200, CONTENT);
+    });
+    server.createContext("/redirect", ex -> {
+      ex.getResponseHeaders().add("Location", "/etag");
+      respond(ex, 302, "");
+    });
+    server.createContext("/truncated", ex -> {
+      // promises more than it sends, then drops the connection
+      ex.sendResponseHeaders(200, 1024);
+      ex.getResponseBody().write(CONTENT.getBytes(Charsets.UTF_8));
+      ex.getResponseBody().flush();
+      ex.close();
+    });
+    server.createContext("/missing", ex -> respond(ex, 404, "not found"));
+    server.createContext("/confused", ex -> {
+      // always claims not modified unless asked without validators a second time
+      respond(ex, requests.incrementAndGet() == 1 ? 304 : 200, CONTENT);
+    });
+
+    server.start();
+  }
+
+  @AfterClass
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  @AfterMethod
+  public void reset() {
+    requests.set(0);
+    Networks.setCache(Optional.empty());
+    Networks.setArchive(Optional.empty());
+  }
+
+  private URL url(final String path) {
+    return Networks.newURL("http://localhost:" + server.getAddress().getPort() + path);
+  }
+
+  public void etagRevalidation() {
+    final FetchStatistics stats = Networks.getStatistics("etagRevalidation");
+    final Supplier<String> supplier = Networks.newURLDownloader(url("/etag"), stats);
+
+    assertEquals(supplier.get(), CONTENT);
+    assertEquals(supplier.get(), CONTENT);
+
+    assertEquals(stats.getOk(), 1L);
+    assertEquals(stats.getNotModified(), 1L);
+    assertEquals(stats.getErrors(), 0L);
+    assertEquals(stats.getBytes(), CONTENT.length());
+  }
+
+  public void persistentCacheRevalidation() throws IOException {
+    Networks.setCache(Optional.of(new HttpCache(Files.createTempDirectory("TEST_NETWORKS_"), 1024)));
+
+    final FetchStatistics stats = Networks.getStatistics("persistentCacheRevalidation");
+
+    // each supplier is a new "run", the second must be served from the persistent cache
+    assertEquals(Networks.newURLDownloader(url("/etag"), stats).get(), CONTENT);
+    assertEquals(Networks.newURLDownloader(url("/etag"), stats).get(), CONTENT);
+
+    assertEquals(stats.getOk(), 1L);
+    assertEquals(stats.getNotModified(), 1L);
+  }
+
+  public void followsRedirects() {
+    final FetchStatistics stats = Networks.getStatistics("followsRedirects");
+
+    assertEquals(Networks.newURLDownloader(url("/redirect"), stats).get(), CONTENT);
+    assertEquals(stats.getOk(), 1L);
+  }
+
+  @Test(expectedExceptions = RuntimeException.class)
+  public void errorResponse() {
+    final FetchStatistics stats = Networks.getStatistics("errorResponse");
+
+    try {
+      Networks.newURLDownloader(url("/missing"), stats).get();
+    } finally {
+      assertEquals(stats.getErrors(), 1L);
+    }
+  }
+
+  public void notModifiedOnFirstRequest() throws IOException {
+    final FetchStatistics stats = Networks.getStatistics("notModifiedOnFirstRequest");
+
+    assertEquals(Networks.newURLDownloader(url("/confused"), stats).get(), CONTENT);
+    assertEquals(stats.getOk(), 1L);
+    assertEquals(stats.getNotModified(), 0L, "304 without validators was counted.");
+
+    requests.set(0);
+    assertEquals(Networks.newURLSource(url("/confused"), stats).asCharSource(Charsets.UTF_8).read(), CONTENT);
+    assertEquals(stats.getOk(), 2L);
+    assertEquals(stats.getNotModified(), 0L, "304 without validators was counted.");
+    assertEquals(stats.getErrors(), 0L);
+  }
+
+  public void streamsContent() throws IOException {
+    final FetchStatistics stats = Networks.getStatistics("streamsContent");
+    final ByteSource source = Networks.newURLSource(url("/redirect"), stats);
+
+    assertEquals(source.asCharSource(Charsets.UTF_8).read(), CONTENT);
+    assertEquals(stats.getOk(), 1L);
+    assertEquals(stats.getBytes(), CONTENT.length());
+  }
+
+  public void streamsThroughPersistentCache() throws IOException {
+    final HttpCache cache = new HttpCache(Files.createTempDirectory("TEST_NETWORKS_"), 1024);
+    Networks.setCache(Optional.of(cache));
+
+    final FetchStatistics stats = Networks.getStatistics("streamsThroughPersistentCache");
+    final ByteSource source = Networks.newURLSource(url("/etag"), stats);
+
+    assertEquals(source.asCharSource(Charsets.UTF_8).read(), CONTENT);
+    assertEquals(cache.size(), CONTENT.length());
+    assertEquals(source.asCharSource(Charsets.UTF_8).read(), CONTENT);
+
+    assertEquals(stats.getOk(), 1L);
+    assertEquals(stats.getNotModified(), 1L);
+  }
+
+  public void truncatedStreamIsAnError() {
+    final FetchStatistics stats = Networks.getStatistics("truncatedStreamIsAnError");
+
+    try (InputStream in = Networks.newURLSource(url("/truncated"), stats).openStream()) {
+      ByteStreams.toByteArray(in);
+    } catch (IOException expected) {
+      // the connection dropped mid-body, depending on the JDK it may also look like the end of the body
+    }
+
+    assertEquals(stats.getOk(), 0L, "Truncated download was counted as successful.");
+    assertEquals(stats.getErrors(), 1L);
+  }
+
+  public void streamIsCountedOnce() throws IOException {
+    final FetchStatistics stats = Networks.getStatistics("streamIsCountedOnce");
+
+    final InputStream in = Networks.newURLSource(url("/etag"), stats).openStream();
+    assertEquals(new String(ByteStreams.toByteArray(in), Charsets.UTF_8), CONTENT);
+    in.close();
+    in.close();
+
+    assertEquals(stats.getOk(), 1L);
+    assertEquals(stats.getErrors(), 0L);
+    assertEquals(stats.getBytes(), CONTENT.length());
+  }
+
+  public void refetchesEvictedBody() throws IOException {
+    final AtomicBoolean evicting = new AtomicBoolean();
+    final HttpCache cache = new HttpCache(Files.createTempDirectory("TEST_NETWORKS_"), 1024) {
+      @Override
+      public Optional<HttpCache.Entry> get(final URL url) {
+        // as if evicted by another thread once validated
+        final Optional<HttpCache.Entry> entry = super.get(url);
+        if (evicting.get() && entry.isPresent()) {
+          entry.get().getBody().toFile().delete();
+        }
+        return entry;
+      }
+    };
+    Networks.setCache(Optional.of(cache));
+
+    final FetchStatistics stats = Networks.getStatistics("refetchesEvictedBody");
+    final ByteSource source = Networks.newURLSource(url("/etag"), stats);
+
+    assertEquals(source.asCharSource(Charsets.UTF_8).read(), CONTENT);
+    evicting.set(true);
+    assertEquals(source.asCharSource(Charsets.UTF_8).read(), CONTENT);
+
+    assertEquals(stats.getOk(), 2L);
+    assertEquals(stats.getNotModified(), 0L);
+    assertEquals(stats.getErrors(), 0L, "Evicted body failed the fetch.");
+  }
+
+  public void replaysRecordedResponses() throws IOException {
+    final Path file = Files.createTempDirectory("TEST_NETWORKS_").resolve("archive.zip");
+
+    try (HttpArchive archive = HttpArchive.record(file)) {
+      Networks.setArchive(Optional.of(archive));
+
+      assertEquals(Networks.newURLDownloader(url("/etag"), Networks.getStatistics("record")).get(), CONTENT);
+      assertEquals(Networks.newURLSource(url("/redirect"), Networks.getStatistics("record"))
+          .asCharSource(Charsets.UTF_8).read(), CONTENT);
+      assertTrue(Networks.ping(url("/etag").toString(), 1000));
+      archive.commit();
+    }
+
+    requests.set(0);
+    try (HttpArchive archive = HttpArchive.replay(file)) {
+      Networks.setArchive(Optional.of(archive));
+
+      final FetchStatistics stats = Networks.getStatistics("replaysRecordedResponses");
+      assertEquals(Networks.newURLDownloader(url("/etag"), stats).get(), CONTENT);
+      assertEquals(Networks.newURLSource(url("/redirect"), stats).asCharSource(Charsets.UTF_8).read(), CONTENT);
+      assertTrue(Networks.ping(url("/etag").toString(), 1000));
+      assertFalse(Networks.ping(url("/missing").toString(), 1000), "Unrecorded URL was reachable.");
+
+      assertEquals(stats.getOk(), 2L);
+    }
+
+    assertEquals(requests.get(), 0, "Replay sent requests.");
+  }
+}